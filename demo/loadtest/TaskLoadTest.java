@@ -0,0 +1,91 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load generator for the task API, run with the JDK alone:
+ *
+ *   java loadtest/TaskLoadTest.java [url] [clients] [seconds]
+ *
+ * Every client is a virtual thread issuing GETs back to back, so 10k clients cost no more
+ * than a few carrier threads on the generator side. Latencies go into 5% wide log buckets.
+ */
+public class TaskLoadTest {
+
+    private static final double BUCKET_RATIO = 1.05;
+    private static final int BUCKETS = 400;
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "http://localhost:8080/api/tasks/1";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+        LongAdder errors = new LongAdder();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder().executor(executor).version(HttpClient.Version.HTTP_1_1).build();
+            long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+            List<Thread> threads = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                threads.add(Thread.ofVirtual().start(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 500 || response.statusCode() == 429) {
+                                errors.increment();
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                        histogram.incrementAndGet(bucket((System.nanoTime() - start) / 1_000));
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+        report(url, clients, seconds, histogram, errors.sum());
+    }
+
+    private static int bucket(long micros) {
+        if (micros <= 1) {
+            return 0;
+        }
+        return (int) Math.min(BUCKETS - 1, Math.log(micros) / Math.log(BUCKET_RATIO));
+    }
+
+    private static double percentile(AtomicLongArray histogram, long total, double p) {
+        long target = (long) Math.ceil(total * p);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += histogram.get(i);
+            if (seen >= target) {
+                return Math.pow(BUCKET_RATIO, i + 1) / 1_000.0;
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static void report(String url, int clients, int seconds, AtomicLongArray histogram, long errors) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += histogram.get(i);
+        }
+        System.out.printf("url=%s clients=%d duration=%ds%n", url, clients, seconds);
+        System.out.printf("requests=%d errors=%d throughput=%.0f req/s%n", total, errors, total / (double) seconds);
+        System.out.printf("p50=%.2fms p99=%.2fms p999=%.2fms%n",
+                percentile(histogram, total, 0.50), percentile(histogram, total, 0.99), percentile(histogram, total, 0.999));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+// TaskController parses the {date} path variables with a yyyy-MM-dd pattern formatter.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateParsingBenchmark {
+
+    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    public String date = "2024-12-15";
+
+    @Benchmark
+    public LocalDate patternFormatter() {
+        return LocalDate.parse(date, formatter);
+    }
+
+    @Benchmark
+    public LocalDate isoLocalDate() {
+        return LocalDate.parse(date);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.demo.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cold start, measured as the time from launching a JVM to the first 200 from GET /api/tasks/{id}.
+// Runs the extracted jar built by `mvn -Pstartup package` as a child process, so build that first.
+// The schema is migrated by Flyway from a single H2-compatible script that also seeds the task.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+    static final long TASK_ID = 1;
+    static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    static final String SCHEMA = """
+            create table tasks (
+                task_id       bigint       not null primary key,
+                task_name     varchar(255),
+                task_data     varchar(255),
+                priority      varchar(255),
+                dead_line     date,
+                creation_date date,
+                completed     boolean      not null,
+                version       bigint       not null default 0,
+                tenant_id     varchar(64)  not null
+            );
+            create sequence tasks_seq start with 51 increment by 50;
+            create table tasks_archive (
+                task_id       bigint       not null primary key,
+                task_name     varchar(255),
+                task_data     varchar(255),
+                priority      varchar(255),
+                dead_line     date,
+                creation_date date,
+                completed     boolean      not null,
+                version       bigint       not null,
+                archived_at   timestamp with time zone not null,
+                tenant_id     varchar(64)  not null
+            );
+            create table task_outbox (
+                id         bigint      not null primary key,
+                event_type varchar(16) not null,
+                task_id    bigint      not null,
+                payload    varchar     not null,
+                created_at timestamp with time zone not null
+            );
+            create sequence task_outbox_seq start with 1 increment by 50;
+            insert into tasks (task_id, task_name, task_data, priority, dead_line, creation_date, completed, tenant_id)
+            values (1, 'Startup', 'first request', 'HIGH', current_date + 7, current_date, false, 'default');
+            """;
+
+    // jar: plain `java -jar` on the default profile; lazy: the startup profile; aot: plus the
+    // AOT-generated bean graph; aot-cds: plus the class data sharing archive from the training run
+    @Param({"jar", "lazy", "aot", "aot-cds"})
+    public String variant;
+
+    private Path startupDir;
+    private Path migrations;
+    private HttpClient client;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        startupDir = Path.of("target", "startup").toAbsolutePath();
+        if (!Files.exists(startupDir.resolve("application.jsa"))) {
+            throw new IllegalStateException("Run `mvn -Pstartup package` first, " + startupDir + " has no CDS archive");
+        }
+        migrations = Files.createTempDirectory("startup-benchmark");
+        Files.writeString(migrations.resolve("V1__startup_benchmark.sql"), SCHEMA);
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            process = null;
+        }
+    }
+
+    @Benchmark
+    public int firstRequest() throws Exception {
+        int port = freePort();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tasks/" + TASK_ID))
+                .timeout(TIMEOUT)
+                .build();
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        process = new ProcessBuilder(command(port))
+                .directory(startupDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(startupDir.resolve("benchmark-" + variant + ".log").toFile())
+                .start();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + ", see benchmark-" + variant + ".log");
+            }
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return response.statusCode();
+                }
+            } catch (ConnectException e) {
+                // not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("No successful response within " + TIMEOUT);
+    }
+
+    private List<String> command(int port) {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        if (variant.equals("aot-cds")) {
+            command.add("-XX:SharedArchiveFile=application.jsa");
+        }
+        if (variant.startsWith("aot")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-jar");
+        command.add("demo-0.0.1-SNAPSHOT.jar");
+        if (!variant.equals("jar")) {
+            command.add("--spring.profiles.active=startup");
+        }
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=jdbc:h2:mem:startup;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE");
+        command.add("--spring.datasource.username=sa");
+        command.add("--spring.datasource.password=");
+        command.add("--spring.datasource.driver-class-name=org.h2.Driver");
+        command.add("--spring.flyway.locations=filesystem:" + migrations);
+        return command;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.Task;
+import com.example.demo.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-row addTask against the chunked addTasks path for the same number of rows.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskBatchWriteBenchmark {
+
+    @Param({"1000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private List<Task> tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        taskService = context.getBean(TaskService.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void newTasks() {
+        tasks = TaskFixtures.tasks(rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int addTaskPerRow() {
+        for (Task task : tasks) {
+            taskService.addTask(task);
+        }
+        return tasks.size();
+    }
+
+    @Benchmark
+    public int addTasksBatched() {
+        return taskService.addTasks(tasks).size();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.Task;
+import com.example.demo.entity.TaskPriority;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+final class TaskFixtures {
+
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+
+    private TaskFixtures() {
+    }
+
+    static List<Task> tasks(int count) {
+        LocalDate today = LocalDate.now();
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Task("task-" + i, "benchmark task number " + i, PRIORITIES[i % PRIORITIES.length],
+                    today.plusDays(i % 365), today, i % 4 == 0));
+        }
+        return tasks;
+    }
+}
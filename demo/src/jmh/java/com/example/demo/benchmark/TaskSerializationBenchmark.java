@@ -0,0 +1,57 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.Task;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Jackson cost of the list endpoints, using the same module set Boot registers.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskSerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Task> tasks;
+    private List<Map<String, Object>> summaries;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        tasks = TaskFixtures.tasks(size);
+        summaries = tasks.stream().map(TaskSerializationBenchmark::summary).toList();
+    }
+
+    // the row shape TaskFieldsRepository returns for fields=summary
+    private static Map<String, Object> summary(Task task) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("taskId", task.getTaskId());
+        row.put("taskName", task.getTaskName());
+        row.put("priority", task.getPriority());
+        row.put("deadLine", task.getDeadLine());
+        row.put("creationDate", task.getCreationDate());
+        row.put("completed", task.isCompleted());
+        return row;
+    }
+
+    @Benchmark
+    public byte[] serializeTaskList() throws Exception {
+        return objectMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] serializeSummaryList() throws Exception {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.Task;
+import com.example.demo.entity.TaskPriority;
+import com.example.demo.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    @Param({"10000"})
+    public int rows;
+
+    @Param({"caffeine", "none"})
+    public String cacheType;
+
+    // Hibernate second-level and query cache
+    @Param({"true", "false"})
+    public boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("spring.cache.type=" + cacheType,
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                "spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache);
+        taskService = context.getBean(TaskService.class);
+        List<Task> tasks = TaskFixtures.tasks(rows);
+        taskService.addTasks(tasks);
+        firstId = tasks.getFirst().getTaskId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Task addTask() {
+        return taskService.addTask(new Task("bench", "benchmark task", TaskPriority.LOW, LocalDate.now(), null, false));
+    }
+
+    @Benchmark
+    public Object getTask() {
+        return taskService.getTask(firstId + ThreadLocalRandom.current().nextInt(rows));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Task> getAllTasksByPriority() {
+        return taskService.getAllTasksByPriority(TaskPriority.HIGH);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.Task;
+import com.example.demo.service.TaskService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Toggle storm: eight threads flipping completed on a small set of hot tasks. Teardown prints the
+// JDBC statements per toggle, counting the flushes that write-behind still owes at the end.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class TaskStatusWriteBehindBenchmark {
+
+    @Param({"100"})
+    public int hotTasks;
+
+    @Param({"true", "false"})
+    public boolean writeBehind;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private Statistics statistics;
+    private long firstId;
+    private final LongAdder toggles = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("tasks.status.write-behind.enabled=" + writeBehind);
+        taskService = context.getBean(TaskService.class);
+        List<Task> tasks = TaskFixtures.tasks(hotTasks);
+        taskService.addTasks(tasks);
+        firstId = tasks.getFirst().getTaskId();
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounts() {
+        taskService.flushStatuses();
+        statistics.clear();
+        toggles.reset();
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        taskService.flushStatuses();
+        System.out.printf("%n%d toggles, %.3f statements per toggle%n",
+                toggles.sum(), (double) statistics.getPrepareStatementCount() / toggles.sum());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean toggle() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        toggles.increment();
+        return taskService.setCompleted(firstId + random.nextInt(hotTasks), random.nextBoolean());
+    }
+}
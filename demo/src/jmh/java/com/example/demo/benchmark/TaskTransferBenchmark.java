@@ -0,0 +1,73 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.TaskImportResult;
+import com.example.demo.service.TaskService;
+import com.example.demo.service.TaskTransferService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+// Rows per second for the streaming export and the chunked import. Each import invocation loads
+// the same ROWS rows again, so the table grows over the run.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class TaskTransferBenchmark {
+
+    static final int ROWS = 10000;
+
+    private ConfigurableApplicationContext context;
+    private TaskTransferService transferService;
+    private byte[] csv;
+    private byte[] ndjson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkApplication.start();
+        context.getBean(TaskService.class).addTasks(TaskFixtures.tasks(ROWS));
+        transferService = context.getBean(TaskTransferService.class);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transferService.exportCsv(out);
+        csv = out.toByteArray();
+        out.reset();
+        transferService.exportNdjson(out);
+        ndjson = out.toByteArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void exportCsv() throws IOException {
+        transferService.exportCsv(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void exportNdjson() throws IOException {
+        transferService.exportNdjson(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public TaskImportResult importCsv() throws IOException {
+        return transferService.importTasks(new ByteArrayInputStream(csv), TaskTransferService.Format.CSV);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public TaskImportResult importNdjson() throws IOException {
+        return transferService.importTasks(new ByteArrayInputStream(ndjson), TaskTransferService.Format.NDJSON);
+    }
+}
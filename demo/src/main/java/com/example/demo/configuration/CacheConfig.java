@@ -0,0 +1,19 @@
+package com.example.demo.configuration;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String TASKS_BY_ID = "tasks";
+    public static final String TASKS_BY_NAME = "tasksByName";
+
+    // Hibernate second-level cache regions, sized in application.conf
+    public static final String TASK_REGION = "task";
+    public static final String TASK_LIST_REGION = "task-lists";
+
+    // prepended to every cache key expression, ids and names are only unique within a tenant
+    public static final String TENANT_KEY = "T(com.example.demo.tenant.TenantContext).getTenantId() + ':' + ";
+}
@@ -0,0 +1,114 @@
+package com.example.demo.configuration;
+
+import com.example.demo.tenant.TenantContext;
+import com.example.demo.tenant.TenantIdentifierResolver;
+import com.example.demo.tenant.TenantProperties;
+import com.example.demo.tenant.TenantRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+@Configuration
+@EnableConfigurationProperties(TenantProperties.class)
+public class TenantConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer tenantIdentifierResolver() {
+        return properties -> properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, new TenantIdentifierResolver());
+    }
+
+    // async MVC work (StreamingResponseBody, Callable) runs on the application executor, outside TenantFilter
+    @Bean
+    public TaskDecorator tenantTaskDecorator() {
+        return TenantContext::propagate;
+    }
+
+    // Only wraps the DataSource when some tenant is routed away from the shared database, so a
+    // single-database deployment keeps the plain Hikari pool.
+    @Bean
+    public static BeanPostProcessor tenantRoutingDataSourcePostProcessor(Environment environment) {
+        TenantProperties properties = Binder.get(environment).bind("tasks.tenants", TenantProperties.class)
+                .orElseGet(() -> new TenantProperties(Set.of(), Map.of(), Map.of()));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource shared) || properties.targets().isEmpty()) {
+                    return bean;
+                }
+                Map<String, DataSource> targets = new LinkedHashMap<>();
+                properties.targets().forEach((name, target) -> targets.put(name, targetPool(name, target, shared)));
+                return new TenantRoutingDataSource(properties.routes(), shared, targets);
+            }
+        };
+    }
+
+    // Migrates every dedicated target with the same settings as the shared database
+    @Bean
+    public FlywayMigrationStrategy tenantFlywayMigrationStrategy(DataSource dataSource) {
+        return flyway -> {
+            flyway.migrate();
+            if (dataSource instanceof TenantRoutingDataSource routing) {
+                routing.getTargets().forEach((name, target) -> {
+                    var configuration = Flyway.configure().configuration(flyway.getConfiguration()).dataSource(target);
+                    String schema = ((HikariDataSource) target).getSchema();
+                    if (schema != null) {
+                        configuration.schemas(schema);
+                    }
+                    configuration.load().migrate();
+                });
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder tenantPoolMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof TenantRoutingDataSource routing) {
+                routing.getTargets().values().forEach(target ->
+                        ((HikariDataSource) target).setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            }
+        };
+    }
+
+    // Pools start on first use; the pool name tags the hikaricp.* metrics of the target
+    private static HikariDataSource targetPool(String name, TenantProperties.Target target, DataSource shared) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("tenant-" + name);
+        if (shared instanceof HikariDataSource defaults) {
+            pool.setJdbcUrl(defaults.getJdbcUrl());
+            pool.setUsername(defaults.getUsername());
+            pool.setPassword(defaults.getPassword());
+            if (target.url() == null) {
+                pool.setDriverClassName(defaults.getDriverClassName());
+            }
+        }
+        if (target.url() != null) {
+            pool.setJdbcUrl(target.url());
+        }
+        if (target.username() != null) {
+            pool.setUsername(target.username());
+        }
+        if (target.password() != null) {
+            pool.setPassword(target.password());
+        }
+        pool.setSchema(target.schema());
+        pool.setMaximumPoolSize(target.maximumPoolSize());
+        return pool;
+    }
+}
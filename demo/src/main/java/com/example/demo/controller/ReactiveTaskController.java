@@ -0,0 +1,147 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.TaskPatch;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.TaskPriority;
+import com.example.demo.repository.ReactiveTaskRepository;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+// WebFlux implementation of the /api/tasks contract served by TaskController in servlet mode.
+// List endpoints stream straight from the R2DBC cursor, so an empty result is an empty 200 rather than a 204.
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/tasks")
+public class ReactiveTaskController {
+
+    @Autowired
+    private ReactiveTaskRepository taskRepository;
+
+    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    @Operation(summary = "create task",description = "Create a task and add it to database")
+    @ApiResponse(responseCode = "201", description = "Successfully created the task")
+    @ApiResponse(responseCode = "409", description = "a task with that name already exists")
+    @PostMapping
+    public Mono<ResponseEntity<Task>> createTask(@RequestBody Task task){
+        return taskRepository.insert(task)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created))
+                .onErrorReturn(DuplicateKeyException.class, new ResponseEntity<>(HttpStatus.CONFLICT));
+    }
+
+    @Operation(summary = "get task",description = "Get a task with specified task ID from database")
+    @ApiResponse(responseCode = "200", description = "Successfully retrived the task")
+    @ApiResponse(responseCode = "404", description = "task not found")
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Task>> getTask(@PathVariable long id){
+        return taskRepository.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @Operation(summary = "get all available tasks",description = "Stream tasks ordered by task ID, starting after the given cursor")
+    @ApiResponse(responseCode = "200", description = "Successfully retrived the tasks")
+    @GetMapping
+    public Flux<Task> getAllAvailableTasks(@RequestParam(required = false) Long after,
+                                           @RequestParam(defaultValue = "" + TaskController.DEFAULT_PAGE_SIZE) int limit){
+        return taskRepository.findAfter(after == null ? 0 : after, Math.clamp(limit, 1, TaskController.MAX_PAGE_SIZE));
+    }
+
+    @Operation(summary = "update task",description = "Update the task retrived by ID from database")
+    @ApiResponse(responseCode = "200", description = "Successfully updated the task")
+    @ApiResponse(responseCode = "409", description = "task was modified since the given version, or another task has that name")
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Task>> updateTask(@PathVariable long id, @RequestBody Task task){
+        // no row updated: either the task is gone or its version moved on
+        return taskRepository.update(id, task)
+                .flatMap(updated -> updated == 0
+                        ? taskRepository.findById(id).map(current -> new ResponseEntity<Task>(HttpStatus.CONFLICT))
+                        : taskRepository.findById(id).map(ResponseEntity::ok))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.OK))
+                .onErrorReturn(DuplicateKeyException.class, new ResponseEntity<>(HttpStatus.CONFLICT));
+    }
+
+    @Operation(summary = "patch task",description = "Update only the given fields of a task, guarded by the version the client last read")
+    @ApiResponse(responseCode = "204", description = "Successfully patched the task, ETag holds the new version")
+    @ApiResponse(responseCode = "400", description = "version missing")
+    @ApiResponse(responseCode = "404", description = "task not found")
+    @ApiResponse(responseCode = "409", description = "task was modified since the given version, or another task has that name")
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Void>> patchTask(@PathVariable long id, @RequestBody TaskPatch patch){
+        if(patch.version() == null){
+            return Mono.just(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+        }
+        return taskRepository.patch(id, patch)
+                .flatMap(updated -> updated == 0
+                        ? taskRepository.findById(id).map(current -> new ResponseEntity<Void>(HttpStatus.CONFLICT))
+                                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND))
+                        : Mono.just(ResponseEntity.noContent().eTag(String.valueOf(patch.version() + 1)).<Void>build()))
+                .onErrorReturn(DuplicateKeyException.class, new ResponseEntity<>(HttpStatus.CONFLICT));
+    }
+
+    @Operation(summary = "delete task",description = "Delete a task based on taskID from database")
+    @ApiResponse(responseCode = "204", description = "Successfully deleted the task")
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<HttpStatus>> deleteTask(@PathVariable long id){
+        return taskRepository.deleteById(id)
+                .map(deleted -> new ResponseEntity<HttpStatus>(HttpStatus.NO_CONTENT))
+                .onErrorReturn(new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR));
+    }
+
+    @Operation(summary = "get all tasks by priority",description = "List of all the tasks with given priority")
+    @ApiResponse(responseCode = "200", description = "Successfully retrived all the tasks by priority")
+    @GetMapping("/priority/{priority}")
+    public Flux<Task> getAllTasksByPriority(@PathVariable TaskPriority priority){
+        return taskRepository.findAllByPriority(priority);
+    }
+
+    @Operation(summary = "get all tasks by deadline",description = "Retrive list of all tasks with deadline date as specified")
+    @ApiResponse(responseCode = "200", description = "Successfully retrived all the tasks by deadline")
+    @ApiResponse(responseCode = "400", description = "invalid date")
+    @GetMapping("/deadline/{date}")
+    public Flux<Task> getAllTasksByDeadLine(@PathVariable String date){
+        return Mono.fromCallable(() -> LocalDate.parse(date, formatter))
+                .flatMapMany(taskRepository::findAllByDeadLine)
+                .onErrorMap(DateTimeParseException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST));
+    }
+
+    @Operation(summary = "get all tasks by creation date",description = "Retrive all the tasks by creation date")
+    @ApiResponse(responseCode = "200", description = "Successfully retrived all the tasks by creation date")
+    @ApiResponse(responseCode = "400", description = "invalid date")
+    @GetMapping("/creationdate/{date}")
+    public Flux<Task> getAllTasksByCreationDate(@PathVariable String date){
+        return Mono.fromCallable(() -> LocalDate.parse(date, formatter))
+                .flatMapMany(taskRepository::findAllByCreationDate)
+                .onErrorMap(DateTimeParseException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST));
+    }
+
+    @Operation(summary = "get all tasks by status",description = "Get all tasks from datebase that match the creation completed status")
+    @ApiResponse(responseCode = "200", description = "Successfully retrived all the tasks by status of task ")
+    @GetMapping("/status/{status}")
+    public Flux<Task> getAllTasksByStatus(@PathVariable boolean status){
+        return taskRepository.findAllByCompleted(status);
+    }
+
+    @Operation(summary = "get task by name",description = "retrive a task that match the given task name database")
+    @ApiResponse(responseCode = "200", description = "Successfully retrived the task")
+    @ApiResponse(responseCode = "404", description = "task not found")
+    @GetMapping("/taskName/{name}")
+    public Mono<ResponseEntity<Task>> getTaskByTaskName(@PathVariable String name){
+        return taskRepository.findByTaskName(name)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+}
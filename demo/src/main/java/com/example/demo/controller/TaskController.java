@@ -1,65 +1,255 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.TaskBatchResult;
+import com.example.demo.dto.TaskImportResult;
+import com.example.demo.dto.TaskPatch;
+import com.example.demo.dto.TaskSearchCriteria;
+import com.example.demo.dto.TaskStats;
 import com.example.demo.entity.Task;
 import com.example.demo.entity.TaskPriority;
+import com.example.demo.event.TaskEventStream;
+import com.example.demo.ratelimit.RateBudget;
+import com.example.demo.ratelimit.RateLimited;
 import com.example.demo.service.TaskService;
+import com.example.demo.service.TaskTransferService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/tasks")
+@ApiResponse(responseCode = "429", description = "client over the rate of the endpoint's budget, retry after Retry-After seconds")
+@ApiResponse(responseCode = "503", description = "service overloaded, retry after Retry-After seconds")
 public class TaskController {
 
+    static final String NDJSON = "application/x-ndjson";
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final String LEASE_HEADER = "X-Lease-Expires";
+    static final int MAX_CLAIM_BATCH = 100;
+    static final int MAX_LEASE_SECONDS = 3600;
+
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private TaskEventStream taskEventStream;
+
+    @Autowired
+    private TaskTransferService taskTransferService;
+
     @Operation(summary = "create task",description = "Create a task and add it to database")
     @ApiResponse(responseCode = "201", description = "Successfully created the task")
+    @ApiResponse(responseCode = "409", description = "a task with that name already exists")
+    @RateLimited(RateBudget.WRITE)
     @PostMapping
     public ResponseEntity<Task> createTask(@RequestBody Task task){
-        Task createdTask = taskService.addTask(task);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdTask);
+        try {
+            Task createdTask = taskService.addTask(task);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdTask);
+        } catch (DataIntegrityViolationException e) {
+            if (!TaskService.isDuplicateName(e)) {
+                throw e;
+            }
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
     }
     @Operation(summary = "get task",description = "Get a task with specified task ID from database")
     @ApiResponse(responseCode = "200", description = "Successfully retrived the task")
     @ApiResponse(responseCode = "404", description = "task not found")
+    @RateLimited(RateBudget.READ)
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTask(@PathVariable long id) {
+    public ResponseEntity<Task> getTask(@PathVariable long id, @RequestParam(defaultValue = "false") boolean includeArchived) {
         return taskService.getTask(id)
+                .or(() -> includeArchived ? taskService.getArchivedTask(id) : Optional.empty())
                 .map(task -> new ResponseEntity<>(task, HttpStatus.OK))
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
-    @Operation(summary = "get all available tasks",description = "Get all tasks from database")
-    @ApiResponse(responseCode = "200", description = "Successfully retrived all the tasks")
+    @Operation(summary = "get all available tasks",description = "Get a page of tasks ordered by task ID, starting after the given cursor")
+    @ApiResponse(responseCode = "200", description = "Successfully retrived the page of tasks, X-Next-Cursor holds the cursor of the next page")
     @ApiResponse(responseCode = "404", description = "task not found")
+    @RateLimited(RateBudget.LIST)
     @GetMapping
-    public ResponseEntity<List<Task>> getAllAvailableTasks(){
-        List<Task> tasks = taskService.getAllTasks();
+    public ResponseEntity<List<Task>> getAllAvailableTasks(@RequestParam(required = false) Long after,
+                                                           @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit){
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        List<Task> tasks = taskService.getTasksAfter(after == null ? 0 : after, pageSize);
         if(tasks.isEmpty()){
-            return new ResponseEntity<>(null,HttpStatus.NOT_FOUND);
+            return new ResponseEntity<>(null, after == null ? HttpStatus.NOT_FOUND : HttpStatus.OK);
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if(tasks.size() == pageSize){
+            response.header("X-Next-Cursor", String.valueOf(tasks.getLast().getTaskId()));
+        }
+        return response.body(tasks);
+    }
+
+    @Operation(summary = "stream all available tasks",description = "Stream every task as newline delimited JSON straight from a database cursor")
+    @ApiResponse(responseCode = "200", description = "Successfully started streaming the tasks")
+    @RateLimited(value = RateBudget.LIST, streaming = true)
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllAvailableTasks(){
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(taskTransferService::exportNdjson);
+    }
+
+    @Operation(summary = "export tasks as CSV",description = "Stream every task as CSV with a header row, read through a server-side cursor")
+    @ApiResponse(responseCode = "200", description = "Successfully exported the tasks")
+    @RateLimited(value = RateBudget.LIST, streaming = true)
+    @GetMapping(value = "/export", produces = TaskTransferService.CSV)
+    public ResponseEntity<StreamingResponseBody> exportTasksCsv(){
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tasks.csv")
+                .contentType(MediaType.parseMediaType(TaskTransferService.CSV))
+                .body(taskTransferService::exportCsv);
+    }
+
+    @Operation(summary = "export tasks as NDJSON",description = "Stream every task as newline delimited JSON, read through a server-side cursor")
+    @ApiResponse(responseCode = "200", description = "Successfully exported the tasks")
+    @RateLimited(value = RateBudget.LIST, streaming = true)
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportTasksNdjson(){
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tasks.ndjson")
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(taskTransferService::exportNdjson);
+    }
+
+    @Operation(summary = "import tasks from CSV",description = "Create a task for every row of a CSV upload with a header row, written in batches")
+    @ApiResponse(responseCode = "200", description = "Import finished, failed rows are listed by record number")
+    @RateLimited(RateBudget.WRITE)
+    @PostMapping(value = "/import", consumes = TaskTransferService.CSV)
+    public ResponseEntity<TaskImportResult> importTasksCsv(InputStream body) throws IOException {
+        return new ResponseEntity<>(taskTransferService.importTasks(body, TaskTransferService.Format.CSV), HttpStatus.OK);
+    }
+
+    @Operation(summary = "import tasks from NDJSON",description = "Create a task for every line of a newline delimited JSON upload, written in batches")
+    @ApiResponse(responseCode = "200", description = "Import finished, failed lines are listed by record number")
+    @RateLimited(RateBudget.WRITE)
+    @PostMapping(value = "/import", consumes = NDJSON)
+    public ResponseEntity<TaskImportResult> importTasksNdjson(InputStream body) throws IOException {
+        return new ResponseEntity<>(taskTransferService.importTasks(body, TaskTransferService.Format.NDJSON), HttpStatus.OK);
+    }
+
+    @Operation(summary = "stream task changes",description = "Server-Sent Events for created, updated and deleted tasks, optionally filtered by priority and completed status. Reconnect with Last-Event-ID to replay missed events")
+    @ApiResponse(responseCode = "200", description = "Event stream opened")
+    @RateLimited(value = RateBudget.READ, streaming = true)
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTaskEvents(@RequestParam(required = false) TaskPriority priority,
+                                                       @RequestParam(required = false) Boolean completed,
+                                                       @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId){
+        return new ResponseEntity<>(taskEventStream.subscribe(priority, completed, lastEventId), HttpStatus.OK);
+    }
+
+    @Operation(summary = "search tasks",description = "Search tasks by any mix of priority, status, deadline range, creation date range and name prefix")
+    @ApiResponse(responseCode = "200", description = "Successfully retrived the matching page of tasks, X-Total-Count holds the number of matches")
+    @ApiResponse(responseCode = "400", description = "invalid sort property")
+    @RateLimited(RateBudget.LIST)
+    @GetMapping("/search")
+    public ResponseEntity<List<Task>> searchTasks(@ParameterObject TaskSearchCriteria criteria,
+                                                  @ParameterObject @PageableDefault(size = DEFAULT_PAGE_SIZE, sort = "taskId") Pageable pageable){
+        try {
+            Page<Task> page = taskService.searchTasks(criteria, pageable);
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(page.getTotalElements()))
+                    .body(page.getContent());
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
         }
-        return new ResponseEntity<>(tasks, HttpStatus.OK);
+    }
+
+    @Operation(summary = "full-text search tasks",description = "Keyword search over task name and task data, ranked by relevance")
+    @ApiResponse(responseCode = "200", description = "Successfully retrived the ranked page of tasks, X-Has-Next tells if another page exists")
+    @ApiResponse(responseCode = "400", description = "missing or invalid query")
+    @RateLimited(RateBudget.LIST)
+    @GetMapping("/fulltext")
+    public ResponseEntity<List<Task>> fullTextSearch(@RequestParam String q,
+                                                     @ParameterObject @PageableDefault(size = 20) Pageable pageable){
+        if(q.isBlank()){
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+        Slice<Task> slice = taskService.fullTextSearch(q, pageable);
+        return ResponseEntity.ok()
+                .header("X-Has-Next", String.valueOf(slice.hasNext()))
+                .body(slice.getContent());
     }
 
     @Operation(summary = "update task",description = "Update the task retrived by ID from database")
     @ApiResponse(responseCode = "200", description = "Successfully updated the task")
+    @ApiResponse(responseCode = "409", description = "task was modified since the given version, or another task has that name")
+    @RateLimited(RateBudget.WRITE)
     @PutMapping("/{id}")
     public ResponseEntity<Task> updateTask(@PathVariable long id, @RequestBody Task task){
-        return new ResponseEntity<>(taskService.updateTask(id, task), HttpStatus.OK);
+        try {
+            return new ResponseEntity<>(taskService.updateTask(id, task), HttpStatus.OK);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        } catch (DataIntegrityViolationException e) {
+            if (!TaskService.isDuplicateName(e)) {
+                throw e;
+            }
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+    }
+
+    @Operation(summary = "patch task",description = "Update only the given fields of a task, guarded by the version the client last read")
+    @ApiResponse(responseCode = "204", description = "Successfully patched the task, ETag holds the new version")
+    @ApiResponse(responseCode = "400", description = "version missing")
+    @ApiResponse(responseCode = "404", description = "task not found")
+    @ApiResponse(responseCode = "409", description = "task was modified since the given version")
+    @RateLimited(RateBudget.WRITE)
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchTask(@PathVariable long id, @RequestBody TaskPatch patch){
+        if(patch.version() == null){
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return taskService.patchTask(id, patch)
+                    .map(version -> ResponseEntity.noContent().eTag(String.valueOf(version)).<Void>build())
+                    .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+    }
+
+    @Operation(summary = "set task status",description = "Mark a task completed or not completed with a single update")
+    @ApiResponse(responseCode = "204", description = "Successfully updated the status")
+    @ApiResponse(responseCode = "404", description = "task not found")
+    @RateLimited(RateBudget.WRITE)
+    @PutMapping("/{id}/completed/{completed}")
+    public ResponseEntity<Void> setTaskCompleted(@PathVariable long id, @PathVariable boolean completed){
+        return new ResponseEntity<>(taskService.setCompleted(id, completed) ? HttpStatus.NO_CONTENT : HttpStatus.NOT_FOUND);
     }
 
     @Operation(summary = "delete task",description = "Delete a task based on taskID from database")
     @ApiResponse(responseCode = "204", description = "Successfully deleted the task")
+    @RateLimited(RateBudget.WRITE)
     @DeleteMapping("/{id}")
     public ResponseEntity<HttpStatus> deleteTask(@PathVariable long id){
         try {
@@ -70,12 +260,106 @@ public class TaskController {
         }
     }
 
+    @Operation(summary = "create tasks in bulk",description = "Create a list of tasks using batched inserts, returns one result per item")
+    @ApiResponse(responseCode = "200", description = "Processed every task, see the status of each result")
+    @RateLimited(RateBudget.WRITE)
+    @PostMapping("/batch")
+    public ResponseEntity<List<TaskBatchResult>> createTasks(@RequestBody List<Task> tasks){
+        return new ResponseEntity<>(taskService.addTasks(tasks), HttpStatus.OK);
+    }
+
+    @Operation(summary = "update tasks in bulk",description = "Update a list of tasks identified by their task ID using batched updates")
+    @ApiResponse(responseCode = "200", description = "Processed every task, see the status of each result")
+    @RateLimited(RateBudget.WRITE)
+    @PutMapping("/batch")
+    public ResponseEntity<List<TaskBatchResult>> updateTasks(@RequestBody List<Task> tasks){
+        return new ResponseEntity<>(taskService.updateTasks(tasks), HttpStatus.OK);
+    }
+
+    @Operation(summary = "delete tasks in bulk",description = "Delete a list of tasks by task ID")
+    @ApiResponse(responseCode = "200", description = "Processed every task ID, see the status of each result")
+    @RateLimited(RateBudget.WRITE)
+    @DeleteMapping("/batch")
+    public ResponseEntity<List<TaskBatchResult>> deleteTasks(@RequestBody List<Long> ids){
+        return new ResponseEntity<>(taskService.deleteTasks(ids), HttpStatus.OK);
+    }
+
+    @Operation(summary = "get task statistics",description = "Task counts in total, by completed status and by priority, plus overdue open tasks, served from in-memory counters")
+    @ApiResponse(responseCode = "200", description = "Successfully retrived the statistics")
+    @RateLimited(RateBudget.READ)
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStats> getStats(){
+        return new ResponseEntity<>(taskService.getStats(), HttpStatus.OK);
+    }
+
+    @Operation(summary = "archive completed tasks",description = "Move completed tasks created more than olderThanDays days ago into the archive")
+    @ApiResponse(responseCode = "200", description = "Number of archived tasks")
+    @RateLimited(RateBudget.WRITE)
+    @PostMapping("/archive")
+    public ResponseEntity<Map<String, Integer>> archiveCompletedTasks(@RequestParam int olderThanDays){
+        int archived = taskService.archiveCompletedTasks(LocalDate.now().minusDays(olderThanDays));
+        return new ResponseEntity<>(Map.of("archived", archived), HttpStatus.OK);
+    }
+
+    @Operation(summary = "claim next tasks",description = "Lease up to limit open tasks to the worker, most urgent first: by priority, then deadline. Claimed tasks are hidden from other workers until the lease expires or is released")
+    @ApiResponse(responseCode = "200", description = "Successfully claimed the tasks, X-Lease-Expires holds the end of the lease")
+    @ApiResponse(responseCode = "204", description = "no claimable task")
+    @ApiResponse(responseCode = "400", description = "worker missing or longer than 64 characters, limit or leaseSeconds out of range")
+    @RateLimited(RateBudget.WRITE)
+    @PostMapping("/claim")
+    public ResponseEntity<List<Task>> claimTasks(@RequestParam String worker,
+                                                 @RequestParam(defaultValue = "10") int limit,
+                                                 @RequestParam(defaultValue = "300") int leaseSeconds){
+        if (!validClaim(worker, leaseSeconds) || limit < 1 || limit > MAX_CLAIM_BATCH) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        Instant leaseUntil = Instant.now().plusSeconds(leaseSeconds);
+        List<Task> claimed = taskService.claimTasks(worker, limit, leaseUntil);
+        if (claimed.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        }
+        return ResponseEntity.ok().header(LEASE_HEADER, leaseUntil.toString()).body(claimed);
+    }
+
+    @Operation(summary = "renew claim",description = "Extend the worker's lease on a task it still holds")
+    @ApiResponse(responseCode = "204", description = "Successfully renewed the lease, X-Lease-Expires holds its new end")
+    @ApiResponse(responseCode = "400", description = "worker missing or longer than 64 characters, or leaseSeconds out of range")
+    @ApiResponse(responseCode = "409", description = "the worker holds no live lease on the task")
+    @RateLimited(RateBudget.WRITE)
+    @PutMapping("/{id}/claim")
+    public ResponseEntity<Void> renewClaim(@PathVariable long id, @RequestParam String worker,
+                                           @RequestParam(defaultValue = "300") int leaseSeconds){
+        if (!validClaim(worker, leaseSeconds)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        Instant leaseUntil = Instant.now().plusSeconds(leaseSeconds);
+        if (!taskService.renewClaim(id, worker, leaseUntil)) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+        return ResponseEntity.noContent().header(LEASE_HEADER, leaseUntil.toString()).build();
+    }
+
+    @Operation(summary = "release claim",description = "Give a claimed task back to the queue before its lease expires")
+    @ApiResponse(responseCode = "204", description = "Successfully released the task")
+    @ApiResponse(responseCode = "409", description = "the task is not claimed by the worker")
+    @RateLimited(RateBudget.WRITE)
+    @DeleteMapping("/{id}/claim")
+    public ResponseEntity<Void> releaseClaim(@PathVariable long id, @RequestParam String worker){
+        return new ResponseEntity<>(taskService.releaseClaim(id, worker) ? HttpStatus.NO_CONTENT : HttpStatus.CONFLICT);
+    }
+
     @Operation(summary = "get all tasks by priority",description = "List of all the tasks with given priority")
     @ApiResponse(responseCode = "200", description = "Successfully retrived all the tasks by priority")
+    @ApiResponse(responseCode = "304", description = "tasks unchanged since the ETag in If-None-Match")
     @ApiResponse(responseCode = "404", description = "task not found")
+    @RateLimited(RateBudget.LIST)
     @GetMapping("/priority/{priority}")
-    public ResponseEntity<List<Task>> getAllTasksByPriority(@PathVariable TaskPriority priority){
-        List<Task> tasks = taskService.getAllTasksByPriority(priority);
+    public ResponseEntity<List<Task>> getAllTasksByPriority(@PathVariable TaskPriority priority, @RequestParam(defaultValue = "false") boolean includeArchived,
+                                                            WebRequest request){
+        if (request.checkNotModified(taskService.getChangeTag())) {
+            return null;
+        }
+        List<Task> tasks = taskService.getAllTasksByPriority(priority, includeArchived);
         if (tasks.isEmpty()) {
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         }
@@ -86,11 +370,18 @@ public class TaskController {
 
     @Operation(summary = "get all tasks by deadline",description = "Retrive list of all tasks with deadline date as specified")
     @ApiResponse(responseCode = "200", description = "Successfully retrived all the tasks by deadline")
+    @ApiResponse(responseCode = "304", description = "tasks unchanged since the ETag in If-None-Match")
     @ApiResponse(responseCode = "404", description = "task not found")
+    @RateLimited(RateBudget.LIST)
     @GetMapping("/deadline/{date}")
-    public ResponseEntity<List<Task>> getAllTasksByDeadLine(@PathVariable String  date){
+    public ResponseEntity<List<Task>> getAllTasksByDeadLine(@PathVariable String  date, @RequestParam(defaultValue = "false") boolean includeArchived,
+                                                            WebRequest request){
         try {
-            List<Task> tasks = taskService.getAllTasksByDeadLine(LocalDate.parse(date,formatter));
+            LocalDate deadLine = LocalDate.parse(date,formatter);
+            if (request.checkNotModified(taskService.getChangeTag())) {
+                return null;
+            }
+            List<Task> tasks = taskService.getAllTasksByDeadLine(deadLine, includeArchived);
             if (tasks.isEmpty()) {
                 return new ResponseEntity<>(HttpStatus.NO_CONTENT);
             }
@@ -102,11 +393,18 @@ public class TaskController {
 
     @Operation(summary = "get all tasks by creation date",description = "Retrive all the tasks by creation date")
     @ApiResponse(responseCode = "200", description = "Successfully retrived all the tasks by creation date")
+    @ApiResponse(responseCode = "304", description = "tasks unchanged since the ETag in If-None-Match")
     @ApiResponse(responseCode = "404", description = "task not found")
+    @RateLimited(RateBudget.LIST)
     @GetMapping("/creationdate/{date}")
-    public ResponseEntity<List<Task>> getAllTasksByCreationDate(@PathVariable String date){
+    public ResponseEntity<List<Task>> getAllTasksByCreationDate(@PathVariable String date, @RequestParam(defaultValue = "false") boolean includeArchived,
+                                                                WebRequest request){
         try{
-            List<Task> tasks = taskService.getAllTasksByCreationDate(LocalDate.parse(date,formatter));
+            LocalDate creationDate = LocalDate.parse(date,formatter);
+            if (request.checkNotModified(taskService.getChangeTag())) {
+                return null;
+            }
+            List<Task> tasks = taskService.getAllTasksByCreationDate(creationDate, includeArchived);
             if(tasks.isEmpty()){
                 return new ResponseEntity<>(HttpStatus.NO_CONTENT);
             }
@@ -118,11 +416,17 @@ public class TaskController {
 
     @Operation(summary = "get all tasks by status",description = "Get all tasks from datebase that match the creation completed status")
     @ApiResponse(responseCode = "200", description = "Successfully retrived all the tasks by status of task ")
+    @ApiResponse(responseCode = "304", description = "tasks unchanged since the ETag in If-None-Match")
     @ApiResponse(responseCode = "404", description = "task not found")
+    @RateLimited(RateBudget.LIST)
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Task>> getAllTasksByStatus(boolean status){
+    public ResponseEntity<List<Task>> getAllTasksByStatus(boolean status, @RequestParam(defaultValue = "false") boolean includeArchived,
+                                                          WebRequest request){
+        if (request.checkNotModified(taskService.getChangeTag())) {
+            return null;
+        }
         try {
-            List<Task> tasks = taskService.getAllByStatus(status);
+            List<Task> tasks = taskService.getAllByStatus(status, includeArchived);
             if(tasks.isEmpty()){
                 return new ResponseEntity<>(HttpStatus.NO_CONTENT);
             }
@@ -135,6 +439,7 @@ public class TaskController {
     @Operation(summary = "get task by name",description = "retrive a task that match the given task name database")
     @ApiResponse(responseCode = "200", description = "Successfully retrived the task")
     @ApiResponse(responseCode = "404", description = "task not found")
+    @RateLimited(RateBudget.READ)
     @GetMapping("/taskName/{name}")
     public ResponseEntity<Optional<Task>> getTaskByTaskName(@PathVariable String name){
         try {
@@ -147,4 +452,115 @@ public class TaskController {
             return new ResponseEntity<>(null,HttpStatus.BAD_REQUEST);
         }
     }
+
+    // Variants of the list endpoints selected by ?fields=, returning only the requested columns
+    // (e.g. fields=taskId,taskName or fields=summary) as flat JSON objects.
+
+    @Operation(summary = "get task fields",description = "Get a page of tasks ordered by task ID with only the requested fields")
+    @ApiResponse(responseCode = "200", description = "Successfully retrived the page of task fields")
+    @ApiResponse(responseCode = "400", description = "unknown field")
+    @RateLimited(RateBudget.LIST)
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllAvailableTaskFields(@RequestParam String fields,
+                                                                              @RequestParam(required = false) Long after,
+                                                                              @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit){
+        try {
+            int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+            return new ResponseEntity<>(taskService.getTaskFieldsAfter(after == null ? 0 : after, pageSize, fields), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Operation(summary = "get task fields by priority",description = "Only the requested fields of the tasks with given priority")
+    @ApiResponse(responseCode = "200", description = "Successfully retrived the task fields by priority")
+    @ApiResponse(responseCode = "304", description = "tasks unchanged since the ETag in If-None-Match")
+    @ApiResponse(responseCode = "400", description = "unknown field")
+    @RateLimited(RateBudget.LIST)
+    @GetMapping(value = "/priority/{priority}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getTaskFieldsByPriority(@PathVariable TaskPriority priority, @RequestParam String fields,
+                                                                            WebRequest request){
+        if (request.checkNotModified(taskService.getChangeTag())) {
+            return null;
+        }
+        return taskFields(new TaskSearchCriteria(priority, null, null, null, null, null, null), fields, Pageable.unpaged());
+    }
+
+    @Operation(summary = "get task fields by deadline",description = "Only the requested fields of the tasks with deadline date as specified")
+    @ApiResponse(responseCode = "200", description = "Successfully retrived the task fields by deadline")
+    @ApiResponse(responseCode = "304", description = "tasks unchanged since the ETag in If-None-Match")
+    @ApiResponse(responseCode = "400", description = "invalid date or unknown field")
+    @RateLimited(RateBudget.LIST)
+    @GetMapping(value = "/deadline/{date}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getTaskFieldsByDeadLine(@PathVariable String date, @RequestParam String fields,
+                                                                            WebRequest request){
+        try {
+            LocalDate deadLine = LocalDate.parse(date, formatter);
+            if (request.checkNotModified(taskService.getChangeTag())) {
+                return null;
+            }
+            return taskFields(new TaskSearchCriteria(null, null, deadLine, deadLine, null, null, null), fields, Pageable.unpaged());
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Operation(summary = "get task fields by creation date",description = "Only the requested fields of the tasks created on the given date")
+    @ApiResponse(responseCode = "200", description = "Successfully retrived the task fields by creation date")
+    @ApiResponse(responseCode = "304", description = "tasks unchanged since the ETag in If-None-Match")
+    @ApiResponse(responseCode = "400", description = "invalid date or unknown field")
+    @RateLimited(RateBudget.LIST)
+    @GetMapping(value = "/creationdate/{date}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getTaskFieldsByCreationDate(@PathVariable String date, @RequestParam String fields,
+                                                                                WebRequest request){
+        try {
+            LocalDate creationDate = LocalDate.parse(date, formatter);
+            if (request.checkNotModified(taskService.getChangeTag())) {
+                return null;
+            }
+            return taskFields(new TaskSearchCriteria(null, null, null, null, creationDate, creationDate, null), fields, Pageable.unpaged());
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Operation(summary = "get task fields by status",description = "Only the requested fields of the tasks with the given completed status")
+    @ApiResponse(responseCode = "200", description = "Successfully retrived the task fields by status")
+    @ApiResponse(responseCode = "304", description = "tasks unchanged since the ETag in If-None-Match")
+    @ApiResponse(responseCode = "400", description = "unknown field")
+    @RateLimited(RateBudget.LIST)
+    @GetMapping(value = "/status/{status}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getTaskFieldsByStatus(@PathVariable boolean status, @RequestParam String fields,
+                                                                          WebRequest request){
+        if (request.checkNotModified(taskService.getChangeTag())) {
+            return null;
+        }
+        return taskFields(new TaskSearchCriteria(null, status, null, null, null, null, null), fields, Pageable.unpaged());
+    }
+
+    @Operation(summary = "search task fields",description = "Search tasks and return only the requested fields")
+    @ApiResponse(responseCode = "200", description = "Successfully retrived the matching page of task fields")
+    @ApiResponse(responseCode = "400", description = "unknown field or sort property")
+    @RateLimited(RateBudget.LIST)
+    @GetMapping(value = "/search", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> searchTaskFields(@ParameterObject TaskSearchCriteria criteria, @RequestParam String fields,
+                                                                     @ParameterObject @PageableDefault(size = DEFAULT_PAGE_SIZE, sort = "taskId") Pageable pageable){
+        return taskFields(criteria, fields, pageable);
+    }
+
+    private ResponseEntity<List<Map<String, Object>>> taskFields(TaskSearchCriteria criteria, String fields, Pageable pageable){
+        try {
+            List<Map<String, Object>> tasks = taskService.getTaskFields(criteria, fields, pageable);
+            if(tasks.isEmpty() && pageable.isUnpaged()){
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            }
+            return new ResponseEntity<>(tasks, HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private static boolean validClaim(String worker, int leaseSeconds){
+        return !worker.isBlank() && worker.length() <= 64 && leaseSeconds >= 1 && leaseSeconds <= MAX_LEASE_SECONDS;
+    }
 }
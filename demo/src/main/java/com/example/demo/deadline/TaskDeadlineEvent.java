@@ -0,0 +1,14 @@
+package com.example.demo.deadline;
+
+import java.time.LocalDate;
+
+// Published once per task, kind and deadline across all instances: APPROACHING once the deadline is
+// tasks.deadlines.approaching-days away or closer, OVERDUE once it has passed. The tenant is the
+// task's own.
+public record TaskDeadlineEvent(Kind kind, String tenantId, long taskId, LocalDate deadLine) {
+
+    public enum Kind {
+        APPROACHING,
+        OVERDUE
+    }
+}
@@ -0,0 +1,406 @@
+package com.example.demo.deadline;
+
+import com.example.demo.dto.TaskDeadline;
+import com.example.demo.entity.Task;
+import com.example.demo.event.TaskEvent;
+import com.example.demo.event.TaskEventType;
+import com.example.demo.repository.TaskDeadlineNoticeRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.tenant.TenantContext;
+import com.example.demo.tenant.TenantRouting;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// Publishes TaskDeadlineEvents from TaskDeadlineWheels holding the open tasks due within
+// tasks.deadlines.horizon-days, one wheel per routing target since a query only reaches the tables
+// of one target. A wheel is loaded once at startup and then kept current from TaskEvents; each new
+// day only loads the single day entering the horizon, so the tick is a date comparison unless the
+// day has changed or writes came in without a snapshot. Queries run outside the wheel's monitor,
+// which only guards the wheel, so TaskEvents arriving on request threads never wait for the
+// database. Writes that do not go through TaskService are only picked up when their day enters the
+// horizon. A target whose load failed is loaded again on the next tick.
+//
+// A task is APPROACHING once it is due within tasks.deadlines.approaching-days, whether its day
+// comes closer or it is written with a close deadline, and OVERDUE once the deadline has passed.
+// Startup catches up on tasks that became overdue within tasks.deadlines.catch-up-days while no
+// instance was running. Every instance keeps its own wheels, so before publishing an event the task
+// is re-read and the event recorded in task_deadline_notices: only the instance that records it
+// publishes, once per task, kind and deadline.
+@Component
+@ConditionalOnProperty(name = "tasks.deadlines.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskDeadlineScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskDeadlineScheduler.class);
+
+    private static final int RELOAD_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskDeadlineNoticeRepository noticeRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TenantRouting tenantRouting;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${tasks.deadlines.horizon-days:30}")
+    private int horizonDays;
+
+    @Value("${tasks.deadlines.approaching-days:1}")
+    private int approachingDays;
+
+    @Value("${tasks.deadlines.catch-up-days:7}")
+    private int catchUpDays;
+
+    // by routing target, filled once in init
+    private final Map<String, TargetWheel> wheels = new LinkedHashMap<>();
+
+    // ticks leave the wheels alone until the application is ready and has loaded them
+    private volatile boolean ready;
+
+    private Counter approaching;
+    private Counter overdue;
+
+    @PostConstruct
+    void init(){
+        if (approachingDays >= horizonDays) {
+            throw new IllegalStateException("tasks.deadlines.approaching-days must be below tasks.deadlines.horizon-days");
+        }
+        tenantRouting.getTargets().forEach(target -> wheels.put(target, new TargetWheel(target)));
+        approaching = firedCounter(TaskDeadlineEvent.Kind.APPROACHING);
+        overdue = firedCounter(TaskDeadlineEvent.Kind.OVERDUE);
+        Gauge.builder("task.deadlines.scheduled", this, TaskDeadlineScheduler::getScheduledCount)
+                .description("Open tasks held in the deadline wheels")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load(){
+        wheels.values().forEach(wheel -> run(wheel, wheel::load));
+        ready = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskEvent(TaskEvent event){
+        TargetWheel wheel = wheels.get(tenantRouting.getTarget(event.tenantId()));
+        if (wheel != null) {
+            wheel.onTaskEvent(event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.deadlines.tick-ms:60000}")
+    public void tick(){
+        if (ready) {
+            wheels.values().forEach(wheel -> run(wheel, wheel::tick));
+        }
+    }
+
+    public int getScheduledCount(){
+        return wheels.values().stream().mapToInt(TargetWheel::getScheduledCount).sum();
+    }
+
+    LocalDate today(){
+        return LocalDate.now();
+    }
+
+    // one failing target must not hold up the others
+    private void run(TargetWheel wheel, Runnable step){
+        try {
+            step.run();
+        } catch (RuntimeException e) {
+            log.warn("Deadline wheel of target {} failed, retrying on the next tick", wheel.target, e);
+        }
+    }
+
+    private Counter firedCounter(TaskDeadlineEvent.Kind kind){
+        return Counter.builder("task.deadlines.fired")
+                .description("Deadline events published")
+                .tag("kind", kind.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    // The wheel of one target. Every query runs in a root scope on that target; the root scope has
+    // to be open before a transaction starts, it fixes the session's tenant.
+    private final class TargetWheel {
+
+        private final String target;
+
+        // updates that carried no snapshot, resolved in bulk on the next tick
+        private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+        // serializes load and tick, which read the database without holding this
+        private final Object reads = new Object();
+
+        // guarded by this
+        private TaskDeadlineWheel wheel;
+
+        // tasks written while a load or tick was reading the database, whose rows may be stale;
+        // null when no read is running. Guarded by this.
+        private Set<Long> touched;
+
+        // events found due and not yet published, task id to deadline. Guarded by this.
+        private final Map<Long, LocalDate> pendingApproaching = new HashMap<>();
+        private final Map<Long, LocalDate> pendingOverdue = new HashMap<>();
+
+        private TargetWheel(String target) {
+            this.target = target;
+        }
+
+        private void load(){
+            synchronized (reads) {
+                LocalDate today = today();
+                TaskDeadlineWheel loaded = new TaskDeadlineWheel(horizonDays, today);
+                Map<Long, LocalDate> passed = new HashMap<>();
+                startRead();
+                try (TenantContext.Scope ignored = TenantContext.openRoot(target)) {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        try (Stream<TaskDeadline> deadlines = taskRepository.streamOpenDeadlines(
+                                today.minusDays(catchUpDays), loaded.getLastDay().plusDays(1))) {
+                            deadlines.forEach(deadline -> {
+                                if (deadline.deadLine().isBefore(today)) {
+                                    passed.put(deadline.taskId(), deadline.deadLine());
+                                } else {
+                                    loaded.schedule(deadline.taskId(), deadline.deadLine());
+                                }
+                            });
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    endRead();
+                    throw e;
+                }
+                synchronized (this) {
+                    for (long taskId : touched) {
+                        loaded.cancel(taskId);
+                        passed.remove(taskId);
+                        dirty.add(taskId);
+                    }
+                    touched = null;
+                    wheel = loaded;
+                    pendingOverdue.putAll(passed);
+                    for (LocalDate day = today; !day.isAfter(today.plusDays(approachingDays)); day = day.plusDays(1)) {
+                        for (long taskId : loaded.dueOn(day)) {
+                            pendingApproaching.put(taskId, day);
+                        }
+                    }
+                }
+                publishPending();
+            }
+        }
+
+        private synchronized void onTaskEvent(TaskEvent event){
+            if (touched != null) {
+                touched.add(event.taskId());
+            }
+            if (wheel == null) {
+                return;
+            }
+            Task task = event.task();
+            if (event.type() == TaskEventType.DELETED) {
+                wheel.cancel(event.taskId());
+            } else if (task == null) {
+                dirty.add(event.taskId());
+            } else {
+                reschedule(event.taskId(), task.isCompleted(), task.getDeadLine());
+            }
+        }
+
+        private void tick(){
+            synchronized (reads) {
+                LocalDate today = today();
+                List<Long> reload;
+                List<LocalDate> entering = new ArrayList<>();
+                synchronized (this) {
+                    if (wheel == null) {
+                        reload = null;
+                    } else {
+                        reload = new ArrayList<>(dirty);
+                        dirty.removeAll(reload);
+                        long days = ChronoUnit.DAYS.between(wheel.getCurrentDay(), today);
+                        for (long day = 1; day <= days; day++) {
+                            entering.add(wheel.getLastDay().plusDays(day));
+                        }
+                        touched = new HashSet<>();
+                    }
+                }
+                if (reload == null) {
+                    load();
+                    return;
+                }
+                List<Task> reloaded = new ArrayList<>();
+                Map<LocalDate, List<Long>> enteringIds = new HashMap<>();
+                try (TenantContext.Scope ignored = TenantContext.openRoot(target)) {
+                    for (int from = 0; from < reload.size(); from += RELOAD_CHUNK_SIZE) {
+                        reloaded.addAll(taskRepository.findAllById(reload.subList(from, Math.min(from + RELOAD_CHUNK_SIZE, reload.size()))));
+                    }
+                    for (LocalDate day : entering) {
+                        enteringIds.put(day, taskRepository.findOpenTaskIdsByDeadLine(day));
+                    }
+                    if (!entering.isEmpty()) {
+                        transactionTemplate.executeWithoutResult(status ->
+                                noticeRepository.deleteByDeadLineBefore(today.minusDays(catchUpDays)));
+                    }
+                } catch (RuntimeException e) {
+                    dirty.addAll(reload);
+                    endRead();
+                    throw e;
+                }
+                synchronized (this) {
+                    applyReload(reload, reloaded);
+                    advance(today, enteringIds);
+                    touched = null;
+                }
+                publishPending();
+            }
+        }
+
+        private synchronized int getScheduledCount(){
+            return wheel == null ? 0 : wheel.size();
+        }
+
+        private synchronized void startRead(){
+            touched = new HashSet<>();
+        }
+
+        private synchronized void endRead(){
+            touched = null;
+        }
+
+        // rows of tasks written while they were being read are resolved again on the next tick
+        private void applyReload(List<Long> ids, List<Task> tasks){
+            Map<Long, Task> byId = new HashMap<>();
+            tasks.forEach(task -> byId.put(task.getTaskId(), task));
+            for (long taskId : ids) {
+                Task task = byId.get(taskId);
+                if (touched.contains(taskId)) {
+                    dirty.add(taskId);
+                } else if (task == null) {
+                    wheel.cancel(taskId);
+                } else {
+                    reschedule(taskId, task.isCompleted(), task.getDeadLine());
+                }
+            }
+        }
+
+        private void advance(LocalDate today, Map<LocalDate, List<Long>> enteringIds){
+            while (wheel.getCurrentDay().isBefore(today)) {
+                LocalDate passed = wheel.getCurrentDay();
+                for (long taskId : wheel.advance()) {
+                    pendingOverdue.put(taskId, passed);
+                }
+                LocalDate soon = wheel.getCurrentDay().plusDays(approachingDays);
+                for (long taskId : wheel.dueOn(soon)) {
+                    pendingApproaching.put(taskId, soon);
+                }
+                LocalDate entered = wheel.getLastDay();
+                for (long taskId : enteringIds.getOrDefault(entered, List.of())) {
+                    if (touched.contains(taskId)) {
+                        dirty.add(taskId);
+                    } else {
+                        wheel.schedule(taskId, entered);
+                    }
+                }
+            }
+        }
+
+        private void reschedule(long taskId, boolean completed, LocalDate deadLine){
+            LocalDate previous = wheel.getScheduledDay(taskId);
+            LocalDate today = wheel.getCurrentDay();
+            if (completed || deadLine == null) {
+                wheel.cancel(taskId);
+            } else if (deadLine.isBefore(today)) {
+                wheel.cancel(taskId);
+                if (!deadLine.isBefore(today.minusDays(catchUpDays))) {
+                    pendingOverdue.put(taskId, deadLine);
+                }
+            } else {
+                wheel.schedule(taskId, deadLine);
+                if (!deadLine.equals(previous) && !deadLine.isAfter(today.plusDays(approachingDays))) {
+                    pendingApproaching.put(taskId, deadLine);
+                }
+            }
+        }
+
+        private void publishPending(){
+            Map<Long, LocalDate> dueSoon;
+            Map<Long, LocalDate> passed;
+            synchronized (this) {
+                dueSoon = new HashMap<>(pendingApproaching);
+                passed = new HashMap<>(pendingOverdue);
+                pendingApproaching.clear();
+                pendingOverdue.clear();
+            }
+            publish(TaskDeadlineEvent.Kind.OVERDUE, passed);
+            publish(TaskDeadlineEvent.Kind.APPROACHING, dueSoon);
+        }
+
+        // The wheel can lag behind writes that bypass TaskService, so each task is read again and
+        // only published while it is still open with that deadline. Chunks that fail are retried
+        // on the next tick.
+        private void publish(TaskDeadlineEvent.Kind kind, Map<Long, LocalDate> due){
+            List<Long> ids = new ArrayList<>(due.keySet());
+            for (int from = 0; from < ids.size(); from += RELOAD_CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + RELOAD_CHUNK_SIZE, ids.size()));
+                int fired;
+                try (TenantContext.Scope ignored = TenantContext.openRoot(target)) {
+                    fired = transactionTemplate.execute(status -> publishChunk(kind, chunk, due));
+                } catch (RuntimeException e) {
+                    synchronized (this) {
+                        Map<Long, LocalDate> pending = kind == TaskDeadlineEvent.Kind.OVERDUE ? pendingOverdue : pendingApproaching;
+                        ids.subList(from, ids.size()).forEach(taskId -> pending.putIfAbsent(taskId, due.get(taskId)));
+                    }
+                    throw e;
+                }
+                (kind == TaskDeadlineEvent.Kind.OVERDUE ? overdue : approaching).increment(fired);
+            }
+        }
+
+        private int publishChunk(TaskDeadlineEvent.Kind kind, List<Long> chunk, Map<Long, LocalDate> due){
+            int fired = 0;
+            for (Task task : taskRepository.findAllById(chunk)) {
+                LocalDate deadLine = due.get(task.getTaskId());
+                if (!task.isCompleted() && deadLine.equals(task.getDeadLine())
+                        && noticeRepository.claim(task.getTaskId(), kind.name(), deadLine) == 1) {
+                    eventPublisher.publishEvent(new TaskDeadlineEvent(kind, task.getTenantId(), task.getTaskId(), deadLine));
+                    fired++;
+                }
+            }
+            return fired;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.demo.deadline;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Timing wheel with one slot per day. Deadlines are day precise, so a single level covering
+// horizonDays is enough: only tasks due inside [currentDay, currentDay + horizonDays) are held,
+// and the slot freed by each advance is reused for the day entering the horizon. Scheduling,
+// cancelling and firing are O(1) per task. Not thread safe.
+public class TaskDeadlineWheel {
+
+    private final Set<Long>[] slots;
+    private final Map<Long, Long> scheduledDays = new HashMap<>();
+    private long currentDay;
+
+    @SuppressWarnings("unchecked")
+    public TaskDeadlineWheel(int horizonDays, LocalDate today) {
+        if (horizonDays < 2) {
+            throw new IllegalArgumentException("horizonDays must be at least 2");
+        }
+        slots = new Set[horizonDays];
+        for (int i = 0; i < horizonDays; i++) {
+            slots[i] = new HashSet<>();
+        }
+        currentDay = today.toEpochDay();
+    }
+
+    // Returns false when the deadline is outside the horizon; the task then only enters the
+    // wheel once its day is loaded by the owner.
+    public boolean schedule(long taskId, LocalDate deadLine) {
+        cancel(taskId);
+        long day = deadLine.toEpochDay();
+        if (day < currentDay || day >= currentDay + slots.length) {
+            return false;
+        }
+        slots[slot(day)].add(taskId);
+        scheduledDays.put(taskId, day);
+        return true;
+    }
+
+    public void cancel(long taskId) {
+        Long day = scheduledDays.remove(taskId);
+        if (day != null) {
+            slots[slot(day)].remove(taskId);
+        }
+    }
+
+    // Moves to the next day and returns the tasks that were due on the day just left.
+    public Set<Long> advance() {
+        Set<Long> due = slots[slot(currentDay)];
+        slots[slot(currentDay)] = new HashSet<>();
+        due.forEach(scheduledDays::remove);
+        currentDay++;
+        return due;
+    }
+
+    // day the task is held for, null when it is not in the wheel
+    public LocalDate getScheduledDay(long taskId) {
+        Long day = scheduledDays.get(taskId);
+        return day == null ? null : LocalDate.ofEpochDay(day);
+    }
+
+    public Set<Long> dueOn(LocalDate day) {
+        long epochDay = day.toEpochDay();
+        if (epochDay < currentDay || epochDay >= currentDay + slots.length) {
+            return Set.of();
+        }
+        return Set.copyOf(slots[slot(epochDay)]);
+    }
+
+    public LocalDate getCurrentDay() {
+        return LocalDate.ofEpochDay(currentDay);
+    }
+
+    // last day held by the wheel, the one that entered with the latest advance
+    public LocalDate getLastDay() {
+        return LocalDate.ofEpochDay(currentDay + slots.length - 1);
+    }
+
+    public int size() {
+        return scheduledDays.size();
+    }
+
+    private int slot(long day) {
+        return (int) Math.floorMod(day, (long) slots.length);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.demo.dto;
+
+import org.springframework.http.HttpStatus;
+
+public record TaskBatchResult(int index, Long taskId, int status, String error) {
+
+    public static TaskBatchResult success(int index, long taskId, HttpStatus status) {
+        return new TaskBatchResult(index, taskId, status.value(), null);
+    }
+
+    public static TaskBatchResult failure(int index, Long taskId, HttpStatus status, String error) {
+        return new TaskBatchResult(index, taskId, status.value(), error);
+    }
+}
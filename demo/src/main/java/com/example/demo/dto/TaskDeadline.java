@@ -0,0 +1,6 @@
+package com.example.demo.dto;
+
+import java.time.LocalDate;
+
+public record TaskDeadline(long taskId, LocalDate deadLine) {
+}
@@ -0,0 +1,5 @@
+package com.example.demo.dto;
+
+// record is the 1-based position of the row in the upload, not counting a CSV header
+public record TaskImportError(long record, String error) {
+}
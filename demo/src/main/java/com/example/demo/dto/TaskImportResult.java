@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+// errors keeps the first tasks.import.max-errors failures; failed counts all of them
+public record TaskImportResult(long imported, long failed, List<TaskImportError> errors) {
+}
@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.TaskPriority;
+
+import java.time.LocalDate;
+
+// Partial update of a Task: null fields are left unchanged, version is the one the client last read.
+public record TaskPatch(
+        String taskName,
+        String taskData,
+        TaskPriority priority,
+        LocalDate deadLine,
+        Boolean completed,
+        Long version) {
+}
@@ -0,0 +1,16 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.TaskPriority;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+public record TaskSearchCriteria(
+        TaskPriority priority,
+        Boolean completed,
+        @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate deadLineFrom,
+        @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate deadLineTo,
+        @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate creationDateFrom,
+        @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate creationDateTo,
+        String namePrefix) {
+}
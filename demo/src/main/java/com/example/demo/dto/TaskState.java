@@ -0,0 +1,19 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Task;
+import com.example.demo.entity.TaskPriority;
+
+import java.time.LocalDate;
+
+// The columns TaskStatistics counts by, captured before and after a write.
+public record TaskState(long taskId, TaskPriority priority, boolean completed, LocalDate deadLine) {
+
+    public static TaskState of(Task task) {
+        return new TaskState(task.getTaskId(), task.getPriority(), task.isCompleted(), task.getDeadLine());
+    }
+
+    // open and past its deadline, as the reconcile query counts it
+    public boolean isOverdue(LocalDate today) {
+        return !completed && deadLine != null && deadLine.isBefore(today);
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.TaskPriority;
+
+public record TaskStateCount(String tenantId, TaskPriority priority, boolean completed, long count, long overdue) {
+}
@@ -0,0 +1,11 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.TaskPriority;
+
+import java.time.Instant;
+import java.util.Map;
+
+// overdue is only refreshed by reconciliation since it changes with the date, not with writes
+public record TaskStats(long total, long completed, long open, Map<TaskPriority, Long> byPriority,
+                        long overdue, Instant reconciledAt) {
+}
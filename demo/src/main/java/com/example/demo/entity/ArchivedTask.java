@@ -0,0 +1,47 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.TenantId;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Read-only view of tasks_archive; rows are only written by TaskService.archiveCompletedTasks.
+@Entity
+@Immutable
+@Data
+@Table(name = "tasks_archive")
+public class ArchivedTask {
+
+    @Id
+    private long taskId;
+
+    private String taskName;
+
+    private String taskData;
+
+    @Enumerated(EnumType.STRING)
+    private TaskPriority priority;
+
+    private LocalDate deadLine;
+
+    private LocalDate creationDate;
+
+    private boolean completed;
+
+    private long version;
+
+    private Instant archivedAt;
+
+    @TenantId
+    private String tenantId;
+
+    public Task toTask() {
+        Task task = new Task(taskId, taskName, taskData, priority, deadLine, creationDate, completed);
+        task.setVersion(version);
+        task.setTenantId(tenantId);
+        return task;
+    }
+}
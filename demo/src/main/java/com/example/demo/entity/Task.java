@@ -1,22 +1,32 @@
 package com.example.demo.entity;
 
+import com.example.demo.configuration.CacheConfig;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
 import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.TenantId;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 
 @Entity
 @Data
-@AllArgsConstructor
-@NoArgsConstructor
-@Table(name = "tasks")
+// mirrors ux_tasks_tenant_task_name from the migrations, so schemas built by ddl-auto enforce it too
+@Table(name = "tasks", uniqueConstraints = @UniqueConstraint(name = "ux_tasks_tenant_task_name", columnNames = {"tenant_id", "task_name"}))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.TASK_REGION)
 public class Task {
 
+    // pooled sequence instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private long taskId;
 
     private String taskName;
@@ -32,6 +42,38 @@ public class Task {
 
     private boolean completed;
 
+    @Version
+    private long version;
+
+    // false when a request body carried no version; such a PUT replaces the task whatever its version
+    @Transient
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean versionSet;
+
+    // set by imports, whose rows keep the creation date they were exported with
+    @Transient
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean keepCreationDate;
+
+    // filled in by Hibernate from TenantContext on insert and matched by every entity query
+    @TenantId
+    @Column(length = 64, nullable = false, updatable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String tenantId;
+
+    // work-queue lease, only ever written by the claim queries in TaskRepository
+    @Column(length = 64, insertable = false, updatable = false)
+    @JsonIgnore
+    private String claimedBy;
+
+    @Column(insertable = false, updatable = false)
+    @JsonIgnore
+    private Instant claimExpiresAt;
+
 
     public void setTaskId(long taskId){
         this.taskId = taskId;
@@ -39,7 +81,9 @@ public class Task {
 
     @PrePersist
     protected void onCreate(){
-        this.creationDate = LocalDate.now();
+        if (!keepCreationDate || creationDate == null) {
+            this.creationDate = LocalDate.now();
+        }
     }
 
     // Getter and Setter for taskId
@@ -101,6 +145,26 @@ public class Task {
         this.completed = completed;
     }
 
+    // Getter and Setter for version
+    public long getVersion() {
+        return version;
+    }
+
+    // Hibernate writes the field directly, so only versions coming from a caller mark it as set
+    public void setVersion(long version) {
+        this.version = version;
+        this.versionSet = true;
+    }
+
+    // Getter and Setter for tenantId
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
     public Task(long taskId, String taskName, String taskData, TaskPriority priority, LocalDate deadLine, LocalDate creationDate, boolean completed) {
         this.taskId = taskId;
         this.taskName = taskName;
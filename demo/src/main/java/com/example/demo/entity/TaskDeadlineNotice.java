@@ -0,0 +1,39 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Marks a TaskDeadlineEvent as published; rows are only written by TaskDeadlineNoticeRepository.claim.
+@Entity
+@Data
+@IdClass(TaskDeadlineNotice.Key.class)
+@Table(name = "task_deadline_notices")
+public class TaskDeadlineNotice {
+
+    @Id
+    private long taskId;
+
+    @Id
+    @Column(length = 16)
+    private String kind;
+
+    @Id
+    private LocalDate deadLine;
+
+    private Instant firedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private long taskId;
+        private String kind;
+        private LocalDate deadLine;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.entity;
+
+import com.example.demo.event.TaskEventType;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Entity
+@Data
+@Table(name = "task_outbox")
+public class TaskOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_outbox_seq")
+    @SequenceGenerator(name = "task_outbox_seq", sequenceName = "task_outbox_seq", allocationSize = 50)
+    private long id;
+
+    @Enumerated(EnumType.STRING)
+    private TaskEventType eventType;
+
+    private long taskId;
+
+    // serialized TaskEvent
+    @Column(columnDefinition = "text")
+    private String payload;
+
+    private Instant createdAt;
+
+    public TaskOutboxEvent() {
+    }
+
+    public TaskOutboxEvent(TaskEventType eventType, long taskId, String payload) {
+        this.eventType = eventType;
+        this.taskId = taskId;
+        this.payload = payload;
+        this.createdAt = Instant.now();
+    }
+}
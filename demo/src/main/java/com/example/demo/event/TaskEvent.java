@@ -0,0 +1,41 @@
+package com.example.demo.event;
+
+import com.example.demo.dto.TaskState;
+import com.example.demo.entity.Task;
+import com.example.demo.tenant.TenantContext;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+// Published by TaskService inside the transaction of every write. The task is the state after the write
+// (before it for deletes) and is null when the write did not load the row. The tenant is the one the
+// write ran for. Updates that loaded the row also carry the state before the write, so subscribers
+// filtering on priority or status hear about tasks leaving their view; it stays out of the payload.
+public record TaskEvent(TaskEventType type, long taskId, Task task, String tenantId, @JsonIgnore TaskState before) {
+
+    public TaskEvent(TaskEventType type, long taskId, Task task, String tenantId) {
+        this(type, taskId, task, tenantId, null);
+    }
+
+    public static TaskEvent created(Task task) {
+        return new TaskEvent(TaskEventType.CREATED, task.getTaskId(), task, TenantContext.getTenantId());
+    }
+
+    public static TaskEvent updated(Task task) {
+        return new TaskEvent(TaskEventType.UPDATED, task.getTaskId(), task, TenantContext.getTenantId());
+    }
+
+    public static TaskEvent updated(TaskState before, Task task) {
+        return new TaskEvent(TaskEventType.UPDATED, task.getTaskId(), task, TenantContext.getTenantId(), before);
+    }
+
+    public static TaskEvent updated(long taskId) {
+        return new TaskEvent(TaskEventType.UPDATED, taskId, null, TenantContext.getTenantId());
+    }
+
+    public static TaskEvent deleted(Task task) {
+        return new TaskEvent(TaskEventType.DELETED, task.getTaskId(), task, TenantContext.getTenantId());
+    }
+
+    public static TaskEvent deleted(long taskId) {
+        return new TaskEvent(TaskEventType.DELETED, taskId, null, TenantContext.getTenantId());
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.demo.event;
+
+import com.example.demo.dto.TaskState;
+import com.example.demo.entity.TaskPriority;
+import com.example.demo.tenant.TenantContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Fans committed task events out to Server-Sent Event subscribers. Every event gets an increasing
+// offset and is kept in a fixed size ring buffer, so a client that reconnects with Last-Event-ID
+// is replayed what it missed. Event ids are the offset prefixed with this instance's epoch; an id
+// from before a restart or from another instance cannot be replayed and gets a reset. Publishing never blocks on a subscriber: each one has a bounded
+// queue drained on its own virtual thread, and a subscriber whose queue overflows is disconnected
+// to resume from its last offset. Subscribers only see events of the tenant they subscribed as.
+@Component
+public class TaskEventStream {
+
+    static final String RESET_EVENT = "reset";
+
+    @Value("${tasks.events.buffer-size:4096}")
+    private int bufferSize;
+
+    @Value("${tasks.events.subscriber-queue-size:256}")
+    private int subscriberQueueSize;
+
+    @Value("${tasks.events.timeout:30m}")
+    private Duration timeout;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // guarded by this
+    private Entry[] ring;
+    private long nextOffset = 1;
+
+    @PostConstruct
+    void init(){
+        ring = new Entry[bufferSize];
+    }
+
+    @PreDestroy
+    void shutdown(){
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskEvent(TaskEvent event){
+        synchronized (this) {
+            Entry entry = new Entry(nextOffset++, event);
+            ring[(int) (entry.offset() % ring.length)] = entry;
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(entry);
+            }
+        }
+    }
+
+    // lastEventId is the id of the last event the client has seen; when it is no longer buffered,
+    // or was not issued by this instance since it started, the client first gets a reset event and
+    // should reload before applying further events.
+    public SseEmitter subscribe(TaskPriority priority, Boolean completed, String lastEventId){
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, TenantContext.getTenantId(), priority, completed);
+        synchronized (this) {
+            if (lastEventId != null) {
+                long lastOffset = offsetOf(lastEventId);
+                long oldest = Math.max(1, nextOffset - ring.length);
+                if (lastOffset < oldest - 1 || lastOffset >= nextOffset) {
+                    subscriber.pending.add(new Entry(nextOffset - 1, null));
+                } else {
+                    for (long offset = lastOffset + 1; offset < nextOffset; offset++) {
+                        Entry entry = ring[(int) (offset % ring.length)];
+                        if (subscriber.matches(entry.event())) {
+                            subscriber.pending.add(entry);
+                        }
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        subscriber.schedule();
+        return emitter;
+    }
+
+    public int getSubscriberCount(){
+        return subscribers.size();
+    }
+
+    private String idOf(long offset){
+        return epoch + '-' + offset;
+    }
+
+    // -1 for ids of another epoch or that do not parse, so they are never replayed
+    private long offsetOf(String eventId){
+        String prefix = epoch + '-';
+        if (!eventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private record Entry(long offset, TaskEvent event) {
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final String tenantId;
+        private final TaskPriority priority;
+        private final Boolean completed;
+
+        // guarded by this
+        private final ArrayDeque<Entry> pending = new ArrayDeque<>();
+        private boolean draining;
+        private boolean overflowed;
+
+        private Subscriber(SseEmitter emitter, String tenantId, TaskPriority priority, Boolean completed) {
+            this.emitter = emitter;
+            this.tenantId = tenantId;
+            this.priority = priority;
+            this.completed = completed;
+        }
+
+        // Events without a snapshot cannot be filtered and go to everyone in the tenant. An update
+        // goes out when the task matched before it or matches after it, so a task leaving the
+        // subscriber's view is seen too.
+        private boolean matches(TaskEvent event){
+            if (!tenantId.equals(event.tenantId())) {
+                return false;
+            }
+            if (event.task() == null) {
+                return true;
+            }
+            TaskState before = event.before();
+            return matches(event.task().getPriority(), event.task().isCompleted())
+                    || (before != null && matches(before.priority(), before.completed()));
+        }
+
+        private boolean matches(TaskPriority taskPriority, boolean taskCompleted){
+            return (priority == null || priority == taskPriority) && (completed == null || completed == taskCompleted);
+        }
+
+        private void offer(Entry entry){
+            if (!matches(entry.event())) {
+                return;
+            }
+            synchronized (this) {
+                if (overflowed) {
+                    return;
+                }
+                if (pending.size() >= subscriberQueueSize) {
+                    overflowed = true;
+                    pending.clear();
+                } else {
+                    pending.add(entry);
+                }
+            }
+            schedule();
+        }
+
+        private void schedule(){
+            synchronized (this) {
+                if (draining || (pending.isEmpty() && !overflowed)) {
+                    return;
+                }
+                draining = true;
+            }
+            senders.execute(this::drain);
+        }
+
+        private void drain(){
+            try {
+                while (true) {
+                    Entry next;
+                    synchronized (this) {
+                        if (overflowed) {
+                            break;
+                        }
+                        next = pending.poll();
+                        if (next == null) {
+                            draining = false;
+                            return;
+                        }
+                    }
+                    send(next);
+                }
+                subscribers.remove(this);
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                synchronized (this) {
+                    overflowed = true;
+                    pending.clear();
+                }
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+
+        private void send(Entry entry) throws IOException {
+            if (entry.event() == null) {
+                emitter.send(SseEmitter.event().id(idOf(entry.offset())).name(RESET_EVENT).data(""));
+                return;
+            }
+            emitter.send(SseEmitter.event()
+                    .id(idOf(entry.offset()))
+                    .name(entry.event().type().getEventName())
+                    .data(entry.event(), MediaType.APPLICATION_JSON));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.event;
+
+public enum TaskEventType {
+    CREATED("TaskCreated"),
+    UPDATED("TaskUpdated"),
+    DELETED("TaskDeleted"),
+    // outbox only, written for TaskDeadlineEvents
+    APPROACHING("TaskDeadlineApproaching"),
+    OVERDUE("TaskOverdue");
+
+    private final String eventName;
+
+    TaskEventType(String eventName) {
+        this.eventName = eventName;
+    }
+
+    public String getEventName() {
+        return eventName;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+// Records how many rows each TaskService list method returns, tagged by method name.
+@Aspect
+@Component
+public class TaskResultSizeAspect {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Around("execution(public (java.util.Collection+ || org.springframework.data.domain.Slice+) com.example.demo.service.TaskService.*(..))")
+    public Object recordResultSize(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        int size = switch (result) {
+            case Collection<?> collection -> collection.size();
+            case Slice<?> slice -> slice.getNumberOfElements();
+            case null, default -> 0;
+        };
+        DistributionSummary.builder("task.service.result.size")
+                .description("Number of tasks returned by TaskService list methods")
+                .baseUnit("tasks")
+                .tag("method", joinPoint.getSignature().getName())
+                .register(meterRegistry)
+                .record(size);
+        return result;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.outbox;
+
+import com.example.demo.entity.TaskOutboxEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+// Appends each batch as newline delimited JSON and forces it to disk before reporting delivery.
+@Component
+@ConditionalOnProperty(name = "tasks.outbox.sink", havingValue = "file")
+public class FileTaskEventSink implements TaskEventSink {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${tasks.outbox.file:task-events.ndjson}")
+    private Path file;
+
+    @Override
+    public synchronized void publish(List<TaskOutboxEvent> events) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        for (TaskOutboxEvent event : events) {
+            objectMapper.writeValue(buffer, event);
+            buffer.write('\n');
+        }
+        try (FileOutputStream out = new FileOutputStream(file.toFile(), true)) {
+            buffer.writeTo(out);
+            out.getChannel().force(false);
+        }
+    }
+}
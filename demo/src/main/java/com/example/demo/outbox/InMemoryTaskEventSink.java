@@ -0,0 +1,34 @@
+package com.example.demo.outbox;
+
+import com.example.demo.entity.TaskOutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+// Keeps the most recent events in memory; meant for tests and local runs.
+@Component
+@ConditionalOnProperty(name = "tasks.outbox.sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryTaskEventSink implements TaskEventSink {
+
+    @Value("${tasks.outbox.memory.capacity:10000}")
+    private int capacity;
+
+    private final ArrayDeque<TaskOutboxEvent> events = new ArrayDeque<>();
+
+    @Override
+    public synchronized void publish(List<TaskOutboxEvent> batch) {
+        for (TaskOutboxEvent event : batch) {
+            if (events.size() == capacity) {
+                events.removeFirst();
+            }
+            events.addLast(event);
+        }
+    }
+
+    public synchronized List<TaskOutboxEvent> getEvents() {
+        return List.copyOf(events);
+    }
+}
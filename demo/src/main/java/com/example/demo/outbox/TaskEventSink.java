@@ -0,0 +1,13 @@
+package com.example.demo.outbox;
+
+import com.example.demo.entity.TaskOutboxEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+// Destination for dispatched outbox events. A batch counts as delivered once publish returns;
+// throwing leaves every event of the batch in the outbox for the next poll.
+public interface TaskEventSink {
+
+    void publish(List<TaskOutboxEvent> events) throws IOException;
+}
@@ -0,0 +1,149 @@
+package com.example.demo.outbox;
+
+import com.example.demo.entity.TaskOutboxEvent;
+import com.example.demo.repository.TaskOutboxRepository;
+import com.example.demo.tenant.TenantContext;
+import com.example.demo.tenant.TenantRouting;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Polls the outbox with `parallelism` workers, each owning the events of one partition of task
+// ids. A worker claims a batch with FOR UPDATE, hands it to the sink and deletes it in the same
+// transaction, and keeps going while batches come back full. Events of one task are therefore
+// delivered in the order they were written. Delivery is at least once: a crash after the sink
+// accepted a batch but before the commit republishes it.
+@Component
+@ConditionalOnProperty(name = "tasks.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskOutboxDispatcher.class);
+
+    @Autowired
+    private TaskOutboxRepository outboxRepository;
+
+    @Autowired
+    private TaskEventSink sink;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TenantRouting tenantRouting;
+
+    @Value("${tasks.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${tasks.outbox.parallelism:2}")
+    private int parallelism;
+
+    private ExecutorService workers;
+    private Counter dispatched;
+    private Counter failures;
+    private Timer batchTimer;
+    private Timer lag;
+
+    @PostConstruct
+    void init(){
+        workers = Executors.newFixedThreadPool(parallelism);
+        dispatched = Counter.builder("task.outbox.dispatched")
+                .description("Outbox events delivered to the sink")
+                .baseUnit("events")
+                .register(meterRegistry);
+        failures = Counter.builder("task.outbox.failures")
+                .description("Outbox batches that failed and were left for the next poll")
+                .register(meterRegistry);
+        batchTimer = Timer.builder("task.outbox.batch")
+                .description("Time to claim, publish and delete one outbox batch")
+                .register(meterRegistry);
+        lag = Timer.builder("task.outbox.lag")
+                .description("Time from writing an outbox event to delivering it")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown(){
+        workers.shutdownNow();
+    }
+
+    // every routing target has its own outbox table and gets its own set of workers
+    @Scheduled(fixedDelayString = "${tasks.outbox.poll-interval-ms:500}")
+    public void dispatch(){
+        List<Future<Integer>> running = new ArrayList<>();
+        for (String target : tenantRouting.getTargets()) {
+            for (int i = 0; i < parallelism; i++) {
+                int partition = i;
+                running.add(workers.submit(() -> {
+                    try (TenantContext.Scope ignored = TenantContext.openRoot(target)) {
+                        return drain(partition);
+                    }
+                }));
+            }
+        }
+        for (Future<Integer> worker : running) {
+            try {
+                worker.get();
+            } catch (ExecutionException e) {
+                failures.increment();
+                log.warn("Outbox dispatch failed, retrying on the next poll", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private int drain(int partition){
+        int total = 0;
+        while (true) {
+            int sent = batchTimer.record(() -> transactionTemplate.execute(status -> dispatchBatch(partition)));
+            total += sent;
+            if (sent < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    private int dispatchBatch(int partition){
+        List<TaskOutboxEvent> batch = outboxRepository.claimBatch(partition, parallelism, batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            sink.publish(batch);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        outboxRepository.deleteByIdIn(batch.stream().map(TaskOutboxEvent::getId).toList());
+        Instant now = Instant.now();
+        for (TaskOutboxEvent event : batch) {
+            lag.record(Duration.between(event.getCreatedAt(), now));
+        }
+        dispatched.increment(batch.size());
+        return batch.size();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.outbox;
+
+import com.example.demo.deadline.TaskDeadlineEvent;
+import com.example.demo.entity.TaskOutboxEvent;
+import com.example.demo.event.TaskEvent;
+import com.example.demo.event.TaskEventType;
+import com.example.demo.repository.TaskOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// Runs synchronously inside the transaction that changed the task, so the outbox row commits or
+// rolls back together with it and is flushed in the same JDBC batch.
+@Component
+@ConditionalOnProperty(name = "tasks.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskOutboxWriter {
+
+    @Autowired
+    private TaskOutboxRepository outboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onTaskEvent(TaskEvent event) throws JsonProcessingException {
+        outboxRepository.save(new TaskOutboxEvent(event.type(), event.taskId(), objectMapper.writeValueAsString(event)));
+    }
+
+    // in the scheduler's transaction that records the notice, so a deadline event is written once
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onTaskDeadlineEvent(TaskDeadlineEvent event) throws JsonProcessingException {
+        TaskEventType type = event.kind() == TaskDeadlineEvent.Kind.APPROACHING ? TaskEventType.APPROACHING : TaskEventType.OVERDUE;
+        outboxRepository.save(new TaskOutboxEvent(type, event.taskId(), objectMapper.writeValueAsString(event)));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// AIMD limit on requests in flight: adjust cuts it by a fifth while the service is overloaded and
+// otherwise raises it by one, but only when at least half of it was in use, so an idle service
+// does not drift up to max and let a sudden burst through unchecked.
+public class AdaptiveConcurrencyLimit {
+
+    private final int min;
+    private final int max;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+    private volatile int limit;
+
+    public AdaptiveConcurrencyLimit(int initial, int min, int max) {
+        this.min = min;
+        this.max = max;
+        this.limit = Math.clamp(initial, min, max);
+    }
+
+    // share is the fraction of the limit the caller's class of requests may fill
+    public boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit * share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                peak.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public void adjust(boolean overloaded) {
+        int used = peak.getAndSet(inFlight.get());
+        if (overloaded) {
+            limit = Math.max(min, limit * 4 / 5);
+        } else if (used * 2 >= limit) {
+            limit = Math.min(max, limit + 1);
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.ratelimit;
+
+// Request classes with their own token bucket per client. share is the fraction of the adaptive
+// concurrency limit the class may fill, so under pressure list scans are shed before single
+// task reads and writes.
+public enum RateBudget {
+
+    READ(1.0),
+    LIST(0.5),
+    WRITE(0.8);
+
+    private final double share;
+
+    RateBudget(double share) {
+        this.share = share;
+    }
+
+    public double getShare() {
+        return share;
+    }
+}
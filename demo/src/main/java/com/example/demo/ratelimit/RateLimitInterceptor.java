@@ -0,0 +1,224 @@
+package com.example.demo.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Two gates in front of every @RateLimited endpoint. A per client token bucket for the endpoint's
+// budget answers 429 once a client goes over its rate, and an adaptive concurrency limit answers
+// 503 when the service as a whole is overloaded, that is when the p99 of pool acquire time or of
+// request latency is over its threshold. Clients are told apart by their authenticated principal,
+// else by remote address; X-Client-Id only counts when it comes from one of
+// tasks.ratelimit.trusted-proxies, since anyone else could rotate it for a fresh bucket. Async
+// requests hold their slot and are timed until the async dispatch completes; streaming endpoints
+// (NDJSON lists, exports, events) only pass the token bucket.
+@Component
+@Profile("!reactive")
+public class RateLimitInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String CLIENT_HEADER = "X-Client-Id";
+
+    private static final String STARTED = RateLimitInterceptor.class.getName() + ".started";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tasks.ratelimit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tasks.ratelimit.max-clients:65536}")
+    private int maxClients;
+
+    @Value("${tasks.ratelimit.trusted-proxies:}")
+    private Set<String> trustedProxies;
+
+    @Value("${tasks.ratelimit.read.rate:200}")
+    private double readRate;
+
+    @Value("${tasks.ratelimit.read.burst:400}")
+    private int readBurst;
+
+    @Value("${tasks.ratelimit.list.rate:20}")
+    private double listRate;
+
+    @Value("${tasks.ratelimit.list.burst:40}")
+    private int listBurst;
+
+    @Value("${tasks.ratelimit.write.rate:100}")
+    private double writeRate;
+
+    @Value("${tasks.ratelimit.write.burst:200}")
+    private int writeBurst;
+
+    @Value("${tasks.ratelimit.concurrency.initial-limit:100}")
+    private int initialLimit;
+
+    @Value("${tasks.ratelimit.concurrency.min-limit:10}")
+    private int minLimit;
+
+    @Value("${tasks.ratelimit.concurrency.max-limit:400}")
+    private int maxLimit;
+
+    @Value("${tasks.ratelimit.concurrency.latency-threshold:500ms}")
+    private Duration latencyThreshold;
+
+    @Value("${tasks.ratelimit.concurrency.acquire-threshold:100ms}")
+    private Duration acquireThreshold;
+
+    private TokenBuckets buckets;
+    private AdaptiveConcurrencyLimit concurrencyLimit;
+    private Timer latency;
+    private final Map<RateBudget, Counter> rejected = new EnumMap<>(RateBudget.class);
+    private final Map<RateBudget, Counter> shed = new EnumMap<>(RateBudget.class);
+    private volatile boolean overloaded;
+
+    @PostConstruct
+    void init(){
+        double refillSeconds = Math.max(readBurst / readRate, Math.max(listBurst / listRate, writeBurst / writeRate));
+        buckets = new TokenBuckets(maxClients, Duration.ofMillis((long) Math.ceil(refillSeconds * 1000)));
+        concurrencyLimit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit);
+        for (RateBudget budget : RateBudget.values()) {
+            rejected.put(budget, Counter.builder("task.ratelimit.rejected")
+                    .description("Requests rejected with 429 because the client was over its rate")
+                    .tag("budget", budget.name().toLowerCase())
+                    .register(meterRegistry));
+            shed.put(budget, Counter.builder("task.ratelimit.shed")
+                    .description("Requests shed with 503 because the concurrency limit was reached")
+                    .tag("budget", budget.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        // short window so the limit reacts to the last few seconds, not the last minutes
+        latency = Timer.builder("task.ratelimit.latency")
+                .description("Latency of rate limited requests, its p99 drives the concurrency limit")
+                .publishPercentiles(0.99)
+                .distributionStatisticExpiry(Duration.ofSeconds(10))
+                .distributionStatisticBufferLength(2)
+                .register(meterRegistry);
+        Gauge.builder("task.ratelimit.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive limit on rate limited requests in flight")
+                .register(meterRegistry);
+        Gauge.builder("task.ratelimit.concurrency.inflight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Rate limited requests in flight")
+                .register(meterRegistry);
+        Gauge.builder("task.ratelimit.overloaded", this, interceptor -> interceptor.overloaded ? 1 : 0)
+                .description("1 while latency or pool acquire time is over its threshold")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        // async dispatches resume a request that was already admitted
+        if (!enabled || request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        RateLimited rateLimited = method.getMethodAnnotation(RateLimited.class);
+        if (rateLimited == null) {
+            return true;
+        }
+        RateBudget budget = rateLimited.value();
+        long wait = buckets.tryAcquire(clientKey(request, budget), rate(budget), burst(budget));
+        if (wait > 0) {
+            rejected.get(budget).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999))));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Rate limit exceeded");
+            return false;
+        }
+        if (rateLimited.streaming()) {
+            return true;
+        }
+        if (!concurrencyLimit.tryAcquire(budget.getShare())) {
+            shed.get(budget).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Overloaded");
+            return false;
+        }
+        request.setAttribute(STARTED, System.nanoTime());
+        return true;
+    }
+
+    // Also called at the end of the async dispatch that finishes an async request; the start time
+    // stays on the request until then, so streams are timed and hold their slot to the end.
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request);
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.ratelimit.concurrency.adjust-ms:1000}")
+    public void adjust(){
+        overloaded = p99(latency) > latencyThreshold.toNanos()
+                || meterRegistry.find("hikaricp.connections.acquire").timers().stream()
+                        .anyMatch(timer -> p99(timer) > acquireThreshold.toNanos());
+        concurrencyLimit.adjust(overloaded);
+    }
+
+    private void release(HttpServletRequest request){
+        Object started = request.getAttribute(STARTED);
+        if (started != null) {
+            request.removeAttribute(STARTED);
+            concurrencyLimit.release();
+            latency.record(System.nanoTime() - (Long) started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String clientKey(HttpServletRequest request, RateBudget budget){
+        Principal principal = request.getUserPrincipal();
+        String client;
+        if (principal != null) {
+            client = "user:" + principal.getName();
+        } else if (request.getHeader(CLIENT_HEADER) != null && trustedProxies.contains(request.getRemoteAddr())) {
+            client = "client:" + request.getHeader(CLIENT_HEADER);
+        } else {
+            client = "addr:" + request.getRemoteAddr();
+        }
+        return client + '|' + budget.ordinal();
+    }
+
+    // 0 when the timer does not publish a p99
+    private static double p99(Timer timer){
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == 0.99) {
+                return value.value(TimeUnit.NANOSECONDS);
+            }
+        }
+        return 0;
+    }
+
+    private double rate(RateBudget budget){
+        return switch (budget) {
+            case READ -> readRate;
+            case LIST -> listRate;
+            case WRITE -> writeRate;
+        };
+    }
+
+    private int burst(RateBudget budget){
+        return switch (budget) {
+            case READ -> readBurst;
+            case LIST -> listBurst;
+            case WRITE -> writeBurst;
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.ratelimit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Puts a controller method under RateLimitInterceptor with the given budget
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+
+    RateBudget value();
+
+    // For streams and subscriptions, whose length depends on the data or the client: only the token
+    // bucket applies. A concurrency slot held for the whole stream, and its length fed into the
+    // latency p99, would let one long export shrink the limit for everybody.
+    boolean streaming() default false;
+}
@@ -0,0 +1,53 @@
+package com.example.demo.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token buckets by key, held in a bounded Caffeine cache so every client has a bucket of its own.
+// Each bucket is one long, the theoretical arrival time of the next request (GCRA), updated with a
+// single CAS, so there are no locks on the request path. A bucket left idle for refill is full again
+// and is dropped; past maxKeys the keys least likely to come back are evicted, so memory stays
+// bounded however many clients show up.
+public class TokenBuckets {
+
+    private final Cache<String, AtomicLong> arrivals;
+    private final long origin = System.nanoTime();
+
+    public TokenBuckets(int maxKeys, Duration refill) {
+        arrivals = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(refill)
+                .build();
+    }
+
+    // Takes a token for key; returns 0 when one was available, otherwise the nanoseconds until
+    // the next one is.
+    public long tryAcquire(String key, double ratePerSecond, int burst) {
+        return tryAcquire(key, ratePerSecond, burst, System.nanoTime() - origin);
+    }
+
+    long tryAcquire(String key, double ratePerSecond, int burst, long now) {
+        long interval = (long) (1_000_000_000L / ratePerSecond);
+        long tolerance = interval * burst;
+        AtomicLong bucket = arrivals.get(key, k -> new AtomicLong());
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + interval;
+            long wait = next - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public long size() {
+        arrivals.cleanUp();
+        return arrivals.estimatedSize();
+    }
+}
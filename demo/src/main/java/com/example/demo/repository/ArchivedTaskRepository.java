@@ -0,0 +1,34 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.ArchivedTask;
+import com.example.demo.entity.TaskPriority;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+    List<ArchivedTask> findAllByPriority(TaskPriority priority);
+    List<ArchivedTask> findAllByDeadLine(LocalDate date);
+    List<ArchivedTask> findAllByCreationDate(LocalDate date);
+    List<ArchivedTask> findAllByCompleted(boolean status);
+
+    // only tasks_archive is written; without the space Hibernate would drop every cached task and task list
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "tasks_archive"))
+    @Query(value = "insert into tasks_archive (task_id, task_name, task_data, priority, dead_line, creation_date, completed, version, tenant_id, archived_at) "
+            + "select task_id, task_name, task_data, priority, dead_line, creation_date, completed, version, tenant_id, :archivedAt "
+            + "from tasks where task_id in :ids", nativeQuery = true)
+    int copyFromTasks(@Param("ids") Collection<Long> ids, @Param("archivedAt") Instant archivedAt);
+}
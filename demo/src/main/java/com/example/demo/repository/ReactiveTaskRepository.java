@@ -0,0 +1,194 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.TaskPatch;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.TaskPriority;
+import com.example.demo.tenant.TenantContext;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+// R2DBC counterpart of TaskRepository, only active with the reactive profile. Every statement is
+// scoped to the tenant in the Reactor context; routing to dedicated targets only applies to JDBC.
+@Repository
+@Profile("reactive")
+public class ReactiveTaskRepository {
+
+    private static final String COLUMNS = "task_id, task_name, task_data, priority, dead_line, creation_date, completed, version, tenant_id";
+    private static final int FETCH_SIZE = 500;
+    // priority is bound through cast(... as varchar) because some drivers bind strings as CLOBs,
+    // which cannot be compared with or stored into an enum column
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Mono<Task> findById(long id) {
+        return Mono.deferContextual(context -> databaseClient.sql("select " + COLUMNS + " from tasks where tenant_id = :tenantId and task_id = :id")
+                .bind("tenantId", TenantContext.getTenantId(context))
+                .bind("id", id)
+                .map(ReactiveTaskRepository::toTask)
+                .one());
+    }
+
+    public Flux<Task> findAfter(long afterId, int limit) {
+        return query("select " + COLUMNS + " from tasks where tenant_id = :tenantId and task_id > :after order by task_id limit " + limit,
+                "after", afterId);
+    }
+
+    public Flux<Task> findAllByPriority(TaskPriority priority) {
+        return query("select " + COLUMNS + " from tasks where tenant_id = :tenantId and priority = cast(:value as varchar) order by task_id", "value", priority.name());
+    }
+
+    public Flux<Task> findAllByDeadLine(LocalDate date) {
+        return query("select " + COLUMNS + " from tasks where tenant_id = :tenantId and dead_line = :value order by task_id", "value", date);
+    }
+
+    public Flux<Task> findAllByCreationDate(LocalDate date) {
+        return query("select " + COLUMNS + " from tasks where tenant_id = :tenantId and creation_date = :value order by task_id", "value", date);
+    }
+
+    public Flux<Task> findAllByCompleted(boolean status) {
+        return query("select " + COLUMNS + " from tasks where tenant_id = :tenantId and completed = :value order by task_id", "value", status);
+    }
+
+    public Mono<Task> findByTaskName(String name) {
+        return Mono.deferContextual(context -> databaseClient.sql("select " + COLUMNS + " from tasks where tenant_id = :tenantId and task_name = :name")
+                .bind("tenantId", TenantContext.getTenantId(context))
+                .bind("name", name)
+                .map(ReactiveTaskRepository::toTask)
+                .first());
+    }
+
+    // nextval gives a block of ids that Hibernate's pooled optimizer never hands out elsewhere
+    public Mono<Task> insert(Task task) {
+        LocalDate creationDate = LocalDate.now();
+        return Mono.deferContextual(context -> databaseClient.sql("select nextval('tasks_seq')")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(id -> bindColumns(databaseClient.sql("insert into tasks (" + COLUMNS + ") values "
+                                + "(:id, :taskName, :taskData, cast(:priority as varchar), :deadLine, :creationDate, :completed, 0, :tenantId)"), task)
+                        .bind("id", id)
+                        .bind("creationDate", creationDate)
+                        .bind("tenantId", TenantContext.getTenantId(context))
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(id))
+                .map(id -> {
+                    task.setTaskId(id);
+                    task.setCreationDate(creationDate);
+                    task.setTenantId(TenantContext.getTenantId(context));
+                    return task;
+                }));
+    }
+
+    // Guarded by the task's version like the JPA update; a task without one replaces the row unconditionally
+    public Mono<Long> update(long id, Task task) {
+        String sql = "update tasks set task_name = :taskName, task_data = :taskData, "
+                + "priority = cast(:priority as varchar), dead_line = :deadLine, completed = :completed, version = version + 1 "
+                + "where tenant_id = :tenantId and task_id = :id" + (task.isVersionSet() ? " and version = :version" : "");
+        return Mono.deferContextual(context -> {
+            DatabaseClient.GenericExecuteSpec spec = bindColumns(databaseClient.sql(sql), task)
+                    .bind("tenantId", TenantContext.getTenantId(context))
+                    .bind("id", id);
+            if (task.isVersionSet()) {
+                spec = spec.bind("version", task.getVersion());
+            }
+            return spec.fetch().rowsUpdated();
+        });
+    }
+
+    // Sets only the non-null fields, and only while the row still has the version the client read
+    public Mono<Long> patch(long id, TaskPatch patch) {
+        StringBuilder sql = new StringBuilder("update tasks set version = version + 1");
+        if (patch.taskName() != null) {
+            sql.append(", task_name = :taskName");
+        }
+        if (patch.taskData() != null) {
+            sql.append(", task_data = :taskData");
+        }
+        if (patch.priority() != null) {
+            sql.append(", priority = cast(:priority as varchar)");
+        }
+        if (patch.deadLine() != null) {
+            sql.append(", dead_line = :deadLine");
+        }
+        if (patch.completed() != null) {
+            sql.append(", completed = :completed");
+        }
+        sql.append(" where tenant_id = :tenantId and task_id = :id and version = :version");
+        return Mono.deferContextual(context -> {
+            DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                    .bind("tenantId", TenantContext.getTenantId(context))
+                    .bind("id", id)
+                    .bind("version", patch.version());
+            if (patch.taskName() != null) {
+                spec = spec.bind("taskName", patch.taskName());
+            }
+            if (patch.taskData() != null) {
+                spec = spec.bind("taskData", patch.taskData());
+            }
+            if (patch.priority() != null) {
+                spec = spec.bind("priority", patch.priority().name());
+            }
+            if (patch.deadLine() != null) {
+                spec = spec.bind("deadLine", patch.deadLine());
+            }
+            if (patch.completed() != null) {
+                spec = spec.bind("completed", patch.completed());
+            }
+            return spec.fetch().rowsUpdated();
+        });
+    }
+
+    public Mono<Long> deleteById(long id) {
+        return Mono.deferContextual(context -> databaseClient.sql("delete from tasks where tenant_id = :tenantId and task_id = :id")
+                .bind("tenantId", TenantContext.getTenantId(context))
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated());
+    }
+
+    private Flux<Task> query(String sql, String name, Object value) {
+        return Flux.deferContextual(context -> databaseClient.sql(sql)
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .bind("tenantId", TenantContext.getTenantId(context))
+                .bind(name, value)
+                .map(ReactiveTaskRepository::toTask)
+                .all());
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindColumns(DatabaseClient.GenericExecuteSpec spec, Task task) {
+        spec = bindNullable(spec, "taskName", task.getTaskName(), String.class);
+        spec = bindNullable(spec, "taskData", task.getTaskData(), String.class);
+        spec = bindNullable(spec, "priority", task.getPriority() == null ? null : task.getPriority().name(), String.class);
+        spec = bindNullable(spec, "deadLine", task.getDeadLine(), LocalDate.class);
+        return spec.bind("completed", task.isCompleted());
+    }
+
+    private static <T> DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec, String name, T value, Class<T> type) {
+        return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+    }
+
+    private static Task toTask(Readable row) {
+        String priority = row.get("priority", String.class);
+        Boolean completed = row.get("completed", Boolean.class);
+        Long version = row.get("version", Long.class);
+        Task task = new Task(
+                row.get("task_id", Long.class),
+                row.get("task_name", String.class),
+                row.get("task_data", String.class),
+                priority == null ? null : TaskPriority.valueOf(priority),
+                row.get("dead_line", LocalDate.class),
+                row.get("creation_date", LocalDate.class),
+                completed != null && completed);
+        task.setVersion(version == null ? 0 : version);
+        task.setTenantId(row.get("tenant_id", String.class));
+        return task;
+    }
+}
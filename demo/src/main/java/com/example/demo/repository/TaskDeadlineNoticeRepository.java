@@ -0,0 +1,31 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.TaskDeadlineNotice;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+@Repository
+public interface TaskDeadlineNoticeRepository extends JpaRepository<TaskDeadlineNotice, TaskDeadlineNotice.Key> {
+
+    // 1 when this call recorded the notice, 0 when some instance already had. The query space keeps
+    // the native insert from flushing the second-level cache.
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "task_deadline_notices"))
+    @Query(value = """
+            insert into task_deadline_notices (task_id, kind, dead_line, fired_at)
+            values (:taskId, :kind, :deadLine, current_timestamp) on conflict do nothing""", nativeQuery = true)
+    int claim(@Param("taskId") long taskId, @Param("kind") String kind, @Param("deadLine") LocalDate deadLine);
+
+    @Modifying
+    @Query("delete from TaskDeadlineNotice n where n.deadLine < :before")
+    int deleteByDeadLineBefore(@Param("before") LocalDate before);
+}
@@ -0,0 +1,14 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Task;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+public interface TaskFieldsRepository {
+
+    // Selects only the given Task attributes as scalar tuples; nothing is hydrated or dirty-tracked.
+    List<Map<String, Object>> findFields(Specification<Task> specification, List<String> fields, Pageable pageable);
+}
@@ -0,0 +1,27 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.TaskOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TaskOutboxRepository extends JpaRepository<TaskOutboxEvent, Long> {
+
+    // Events are split into partitions by task, one worker per partition, so all events of a task
+    // go through the same worker in id order. A dispatcher on another instance working the same
+    // partition waits for the lock instead of skipping ahead to later events.
+    @Query(value = """
+            select * from task_outbox where mod(task_id, :partitions) = :partition
+            order by id limit :limit for update""", nativeQuery = true)
+    List<TaskOutboxEvent> claimBatch(@Param("partition") int partition, @Param("partitions") int partitions, @Param("limit") int limit);
+
+    @Modifying
+    @Query("delete from TaskOutboxEvent e where e.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
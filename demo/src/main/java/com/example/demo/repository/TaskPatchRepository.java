@@ -0,0 +1,19 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.TaskPatch;
+
+import java.util.Collection;
+
+public interface TaskPatchRepository {
+
+    // Single UPDATE ... WHERE task_id = ? AND version = ? touching only the non-null fields of the patch.
+    // Returns the number of rows updated, 0 when the task is missing or the version is stale.
+    int patch(long id, TaskPatch patch);
+
+    // single statement fast path for flipping completed, still bumps the optimistic lock version.
+    // Only matches when the status actually changes, so one updated row tells the caller the old value.
+    int updateCompleted(long id, boolean completed);
+
+    // write-behind flush: one statement for every buffered task moving to the same status
+    int updateCompletedIn(Collection<Long> ids, boolean completed);
+}
@@ -0,0 +1,124 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.TaskPatch;
+import com.example.demo.entity.Task;
+import com.example.demo.tenant.TenantContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+// These statements are native so they can declare their own query space. A JPQL update, or a native one
+// on the tasks space, makes Hibernate drop the whole task region on every write; instead only the written
+// rows are soft locked in the second-level cache, the way an entity update does, and the tasks space is
+// invalidated for the cached lists once the transaction completes.
+public class TaskPatchRepositoryImpl implements TaskPatchRepository {
+
+    private static final String TASK_WRITES = "task_writes";
+
+    // the tenant predicate Hibernate adds to JPQL by itself; root scopes see every tenant
+    private static final String TENANT = "(:tenant = '" + TenantContext.ROOT + "' or tenant_id = :tenant)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int patch(long id, TaskPatch patch) {
+        StringBuilder sql = new StringBuilder("update tasks set version = version + 1");
+        Map<String, Object> parameters = new HashMap<>();
+        if (patch.taskName() != null) {
+            sql.append(", task_name = :taskName");
+            parameters.put("taskName", patch.taskName());
+        }
+        if (patch.taskData() != null) {
+            sql.append(", task_data = :taskData");
+            parameters.put("taskData", patch.taskData());
+        }
+        if (patch.priority() != null) {
+            sql.append(", priority = :priority");
+            parameters.put("priority", patch.priority().name());
+        }
+        if (patch.deadLine() != null) {
+            sql.append(", dead_line = :deadLine");
+            parameters.put("deadLine", patch.deadLine());
+        }
+        if (patch.completed() != null) {
+            sql.append(", completed = :completed");
+            parameters.put("completed", patch.completed());
+        }
+        sql.append(" where task_id = :id and version = :version and ").append(TENANT);
+        parameters.put("id", id);
+        parameters.put("version", patch.version());
+
+        Query update = entityManager.createNativeQuery(sql.toString());
+        parameters.forEach(update::setParameter);
+        return execute(update, List.of(id));
+    }
+
+    @Override
+    public int updateCompleted(long id, boolean completed) {
+        Query update = entityManager.createNativeQuery("update tasks set completed = :completed, version = version + 1 "
+                + "where task_id = :id and completed <> :completed and " + TENANT);
+        update.setParameter("id", id);
+        update.setParameter("completed", completed);
+        return execute(update, List.of(id));
+    }
+
+    @Override
+    public int updateCompletedIn(Collection<Long> ids, boolean completed) {
+        Query update = entityManager.createNativeQuery("update tasks set completed = :completed, version = version + 1 "
+                + "where task_id in :ids and completed <> :completed and " + TENANT);
+        update.setParameter("ids", ids);
+        update.setParameter("completed", completed);
+        return execute(update, ids);
+    }
+
+    private int execute(Query update, Collection<Long> ids) {
+        update.setParameter("tenant", TenantContext.getTenantId());
+        update.setHint(HINT_NATIVE_SPACES, TASK_WRITES);
+        // the private query space keeps Hibernate from auto flushing pending task writes, do it here
+        entityManager.flush();
+        invalidate(ids);
+        int updated = update.executeUpdate();
+        // the bulk update bypasses the persistence context, drop anything it made stale
+        entityManager.clear();
+        return updated;
+    }
+
+    // Locks the cached entries before the statement runs, so no concurrent load can put the old row back,
+    // and releases them after completion; a later read then misses and loads the committed row.
+    private void invalidate(Collection<Long> ids) {
+        SessionImplementor current = entityManager.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor factory = current.getFactory();
+        EntityPersister persister = factory.getMappingMetamodel().getEntityDescriptor(Task.class);
+        String[] spaces = Arrays.stream(persister.getQuerySpaces()).map(String.class::cast).toArray(String[]::new);
+        TimestampsCache timestamps = factory.getCache().getTimestampsCache();
+        EntityDataAccess access = persister.getCacheAccessStrategy();
+
+        timestamps.preInvalidate(spaces, current);
+        Map<Object, SoftLock> locks = new HashMap<>();
+        if (access != null) {
+            for (Long id : ids) {
+                Object key = access.generateCacheKey(id, persister, factory, current.getTenantIdentifier());
+                locks.put(key, access.lockItem(current, key, null));
+            }
+        }
+        current.getActionQueue().registerProcess((success, session) -> {
+            locks.forEach((key, lock) -> access.unlockItem(session, key, lock));
+            timestamps.invalidate(spaces, session);
+        });
+    }
+}
@@ -1,20 +1,139 @@
 package com.example.demo.repository;
 
+import com.example.demo.configuration.CacheConfig;
+import com.example.demo.dto.TaskDeadline;
+import com.example.demo.dto.TaskState;
+import com.example.demo.dto.TaskStateCount;
 import com.example.demo.entity.Task;
 import com.example.demo.entity.TaskPriority;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>,
+        TaskFieldsRepository, TaskPatchRepository {
+    // Only a handful of keys and read far more than written, so whole results are kept in the query
+    // cache. Hibernate drops them when a write to tasks goes through it.
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = CacheConfig.TASK_LIST_REGION)
+    })
     List<Task> findAllByPriority(TaskPriority priority);
     List<Task> findAllByDeadLine(LocalDate date);
     List<Task> findAllByCreationDate(LocalDate date);
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = CacheConfig.TASK_LIST_REGION)
+    })
     List<Task> findAllByCompleted(boolean status);
     Task findByTaskName(String name);
 
+    // keyset page: seeks on the primary key index instead of OFFSET scanning
+    List<Task> findByTaskIdGreaterThanOrderByTaskIdAsc(long taskId, Limit limit);
+
+    @Query("select new com.example.demo.dto.TaskState(t.taskId, t.priority, t.completed, t.deadLine) from Task t where t.taskId in :ids")
+    List<TaskState> findStatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // one pass for the statistics of every tenant, run in a root scope
+    @Query("select new com.example.demo.dto.TaskStateCount(t.tenantId, t.priority, t.completed, count(t), "
+            + "sum(case when t.completed = false and t.deadLine < :today then 1 else 0 end)) from Task t "
+            + "group by t.tenantId, t.priority, t.completed")
+    List<TaskStateCount> countByTenantPriorityAndCompleted(@Param("today") LocalDate today);
+
+    // ranked full-text match over the generated search_vector column, see V4 and V8 migrations.
+    // Native queries are not tenant filtered by Hibernate, so the tenant is passed explicitly.
+    @Query(value = "select t.* from tasks t where t.tenant_id = :tenantId "
+            + "and t.search_vector @@ websearch_to_tsquery('english', :query) "
+            + "order by ts_rank(t.search_vector, websearch_to_tsquery('english', :query)) desc, t.task_id",
+            nativeQuery = true)
+    Slice<Task> fullTextSearch(@Param("tenantId") String tenantId, @Param("query") String query, Pageable pageable);
+
+    // LIKE '%x%' baseline for comparing against fullTextSearch, always a sequential scan
+    @Query("select t from Task t where lower(t.taskName) like lower(concat('%', :keyword, '%')) "
+            + "or lower(t.taskData) like lower(concat('%', :keyword, '%')) order by t.taskId")
+    Slice<Task> findByKeywordLike(@Param("keyword") String keyword, Pageable pageable);
+
+    // next archive batch; rows locked by in-flight writes are skipped rather than waited on.
+    // Every tenant of the target, for the nightly job running in a root scope.
+    @Query(value = "select task_id from tasks where completed = true and creation_date < :cutoff "
+            + "limit :limit for update skip locked", nativeQuery = true)
+    List<Long> lockArchivableIds(@Param("cutoff") LocalDate cutoff, @Param("limit") int limit);
+
+    @Query(value = "select task_id from tasks where tenant_id = :tenantId and completed = true and creation_date < :cutoff "
+            + "limit :limit for update skip locked", nativeQuery = true)
+    List<Long> lockArchivableIdsByTenant(@Param("tenantId") String tenantId, @Param("cutoff") LocalDate cutoff,
+                                         @Param("limit") int limit);
+
+    // Next open tasks in claim order whose lease is free or expired, served by ix_tasks_tenant_claim_order
+    // (V9). Rows another worker is claiming right now are skipped rather than waited on.
+    @Query(value = "select task_id from tasks where tenant_id = :tenantId and completed = false "
+            + "and (claim_expires_at is null or claim_expires_at < :now) "
+            + "order by case priority when 'HIGH' then 0 when 'MEDIUM' then 1 else 2 end, dead_line nulls last, task_id "
+            + "limit :limit for update skip locked", nativeQuery = true)
+    List<Long> lockClaimableIds(@Param("tenantId") String tenantId, @Param("now") Instant now, @Param("limit") int limit);
+
+    // Lease writes leave version alone: a claim is queue bookkeeping, not an edit clients should conflict with.
+    // Nothing reads the lease columns through the entity, so these statements declare their own query space
+    // instead of tasks; a native write without one would flush the whole second-level cache.
+    @Modifying(clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "task_claims"))
+    @Query(value = "update tasks set claimed_by = :worker, claim_expires_at = :until where task_id in :ids",
+            nativeQuery = true)
+    int claim(@Param("ids") Collection<Long> ids, @Param("worker") String worker, @Param("until") Instant until);
+
+    @Modifying(clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "task_claims"))
+    @Query(value = "update tasks set claim_expires_at = :until where task_id = :id and tenant_id = :tenantId "
+            + "and claimed_by = :worker and claim_expires_at >= :now and completed = false", nativeQuery = true)
+    int renewClaim(@Param("tenantId") String tenantId, @Param("id") long id, @Param("worker") String worker,
+                   @Param("now") Instant now, @Param("until") Instant until);
+
+    @Modifying(clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "task_claims"))
+    @Query(value = "update tasks set claimed_by = null, claim_expires_at = null where task_id = :id "
+            + "and tenant_id = :tenantId and claimed_by = :worker", nativeQuery = true)
+    int releaseClaim(@Param("tenantId") String tenantId, @Param("id") long id, @Param("worker") String worker);
+
+    // open deadlines in [from, to), served by the partial ix_tasks_open_dead_line index
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.example.demo.dto.TaskDeadline(t.taskId, t.deadLine) from Task t "
+            + "where t.completed = false and t.deadLine >= :from and t.deadLine < :to")
+    Stream<TaskDeadline> streamOpenDeadlines(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select t.taskId from Task t where t.completed = false and t.deadLine = :date")
+    List<Long> findOpenTaskIdsByDeadLine(@Param("date") LocalDate date);
+
+    // server-side cursor, must be consumed inside a transaction. Bypasses the second-level cache so an
+    // export does not evict the hot rows.
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select t from Task t order by t.taskId")
+    Stream<Task> streamAll();
+
 }
@@ -0,0 +1,52 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.TaskSearchCriteria;
+import com.example.demo.entity.Task;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    // Only the criteria that are set become predicates, so every combination runs as one query
+    public static Specification<Task> matching(TaskSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (criteria.priority() != null) {
+                predicates.add(cb.equal(root.get("priority"), criteria.priority()));
+            }
+            if (criteria.completed() != null) {
+                predicates.add(cb.equal(root.get("completed"), criteria.completed()));
+            }
+            if (criteria.deadLineFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("deadLine"), criteria.deadLineFrom()));
+            }
+            if (criteria.deadLineTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("deadLine"), criteria.deadLineTo()));
+            }
+            if (criteria.creationDateFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("creationDate"), criteria.creationDateFrom()));
+            }
+            if (criteria.creationDateTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("creationDate"), criteria.creationDateTo()));
+            }
+            if (criteria.namePrefix() != null && !criteria.namePrefix().isEmpty()) {
+                predicates.add(cb.like(root.get("taskName"), escapeLike(criteria.namePrefix()) + "%", '\\'));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    public static Specification<Task> idGreaterThan(long taskId) {
+        return (root, query, cb) -> cb.greaterThan(root.get("taskId"), taskId);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.service;
+
+import com.example.demo.tenant.TenantRouting;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+// Nightly move of old completed tasks of every tenant so the hot table and its indexes stay small.
+@Component
+@ConditionalOnProperty(name = "tasks.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskArchiveJob {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TenantRouting tenantRouting;
+
+    @Value("${tasks.archive.older-than-days:90}")
+    private int olderThanDays;
+
+    @Scheduled(cron = "${tasks.archive.cron:0 30 2 * * *}")
+    public void archive(){
+        LocalDate cutoff = LocalDate.now().minusDays(olderThanDays);
+        tenantRouting.forEachTarget(() -> taskService.archiveCompletedTasks(cutoff));
+    }
+}
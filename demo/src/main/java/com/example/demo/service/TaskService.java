@@ -1,65 +1,606 @@
 package com.example.demo.service;
 
+import com.example.demo.configuration.CacheConfig;
+import com.example.demo.dto.TaskBatchResult;
+import com.example.demo.dto.TaskPatch;
+import com.example.demo.dto.TaskSearchCriteria;
+import com.example.demo.dto.TaskState;
+import com.example.demo.dto.TaskStats;
+import com.example.demo.entity.ArchivedTask;
 import com.example.demo.entity.Task;
+import com.example.demo.event.TaskEvent;
 import com.example.demo.entity.TaskPriority;
+import com.example.demo.repository.ArchivedTaskRepository;
 import com.example.demo.repository.TaskRepository;
-import jakarta.transaction.Transactional;
+import com.example.demo.repository.TaskSpecifications;
+import com.example.demo.tenant.TenantContext;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Observed(name = "task.service")
 public class TaskService {
 
+    static final List<String> TASK_FIELDS = List.of("taskId", "taskName", "taskData", "priority", "deadLine", "creationDate", "completed");
+    static final List<String> SUMMARY_FIELDS = List.of("taskId", "taskName", "priority", "deadLine", "creationDate", "completed");
+    static final String UNIQUE_VIOLATION = "23505";
+
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TaskStatistics taskStatistics;
+
+    @Autowired
+    private TaskStatusBuffer statusBuffer;
+
+    @Value("${tasks.batch.chunk-size:500}")
+    private int batchChunkSize;
+
+    @Value("${tasks.archive.batch-size:1000}")
+    private int archiveBatchSize;
 
+    // List tags only see writes made through this instance, so they also expire: writes on other
+    // replicas, through the reactive API or straight in SQL show up within this bound.
+    @Value("${tasks.etag.max-age-seconds:60}")
+    private long etagMaxAgeSeconds;
 
+    // Bumped on every write so list responses can be validated without querying. Each tenant has
+    // its own counter; root scope writes (archiving) move the shared one and so every tenant's tag.
+    // The start time keeps tags issued before a restart from matching the reset counters.
+    private final String changeEpoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong rootChangeCount = new AtomicLong();
+    private final Map<String, AtomicLong> tenantChangeCounts = new ConcurrentHashMap<>();
+
+
+    // empty results are cached too, so repeated lookups of missing tasks skip the database
+    @Cacheable(cacheNames = CacheConfig.TASKS_BY_ID, key = CacheConfig.TENANT_KEY + "#id")
     public Optional<Task> getTask(long id){
-        return taskRepository.findById(id);
+        Optional<Task> task = taskRepository.findById(id);
+        // a buffered toggle is not in the row yet; setCompleted evicts this entry each time it buffers one
+        Optional<Boolean> pending = statusBuffer.get(TenantContext.getTenantId(), id);
+        return pending.isEmpty() ? task : task.map(found -> withCompleted(found, pending.get()));
+    }
+
+    public Optional<Task> getArchivedTask(long id){
+        return archivedTaskRepository.findById(id).map(ArchivedTask::toTask);
     }
 
     public List<Task> getAllTasks(){
         return taskRepository.findAll();
     }
+
+    public List<Task> getTasksAfter(long afterId, int limit){
+        return taskRepository.findByTaskIdGreaterThanOrderByTaskIdAsc(afterId, Limit.of(limit));
+    }
+
+    // Each row is detached once handed to the consumer so the persistence context stays empty
+    @Transactional(readOnly = true)
+    public void streamAllTasks(Consumer<Task> consumer){
+        try (Stream<Task> tasks = taskRepository.streamAll()) {
+            tasks.forEach(task -> {
+                consumer.accept(task);
+                entityManager.detach(task);
+            });
+        }
+    }
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TASKS_BY_ID, key = CacheConfig.TENANT_KEY + "#result.taskId"),
+            @CacheEvict(cacheNames = CacheConfig.TASKS_BY_NAME, key = CacheConfig.TENANT_KEY + "#task.taskName", condition = "#task.taskName != null")
+    })
     public Task addTask(Task task){
         Task addTask = taskRepository.save(task);
+        markChanged();
+        taskStatistics.record(null, TaskState.of(addTask));
+        eventPublisher.publishEvent(TaskEvent.created(addTask));
         return addTask;
     }
 
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TASKS_BY_ID, key = CacheConfig.TENANT_KEY + "#id"),
+            @CacheEvict(cacheNames = CacheConfig.TASKS_BY_NAME, allEntries = true)
+    })
     public Task updateTask(long id,Task task){
-        if(taskRepository.existsById(id)){
-            task.setTaskId(id);
-            return taskRepository.save(task);
+        // one load answers whether the task exists, gives the before state and is reused by the merge in save
+        Optional<Task> current = taskRepository.findById(id);
+        if (current.isEmpty()) {
+            return null;
+        }
+        discardPendingStatus(id);
+        TaskState before = TaskState.of(current.get());
+        task.setTaskId(id);
+        // clients that predate versions send none: replace the task whatever its version
+        if (!task.isVersionSet()) {
+            task.setVersion(current.get().getVersion());
         }
-        return null;
+        Task updated = taskRepository.save(task);
+        markChanged();
+        taskStatistics.record(before, TaskState.of(updated));
+        eventPublisher.publishEvent(TaskEvent.updated(before, updated));
+        return updated;
     }
 
+    // Returns the new version, empty when the task does not exist. A stale version is reported as
+    // an optimistic locking failure; only that failure path costs a second query.
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TASKS_BY_ID, key = CacheConfig.TENANT_KEY + "#id"),
+            @CacheEvict(cacheNames = CacheConfig.TASKS_BY_NAME, allEntries = true)
+    })
+    public Optional<Long> patchTask(long id, TaskPatch patch){
+        if (patch.completed() != null) {
+            discardPendingStatus(id);
+        }
+        // the counted columns are only read back when the patch can change them
+        List<TaskState> before = patch.priority() != null || patch.completed() != null || patch.deadLine() != null
+                ? taskRepository.findStatesByIdIn(List.of(id)) : List.of();
+        if (taskRepository.patch(id, patch) == 1) {
+            markChanged();
+            before.forEach(state -> taskStatistics.record(state, new TaskState(id,
+                    patch.priority() != null ? patch.priority() : state.priority(),
+                    patch.completed() != null ? patch.completed() : state.completed(),
+                    patch.deadLine() != null ? patch.deadLine() : state.deadLine())));
+            eventPublisher.publishEvent(TaskEvent.updated(id));
+            return Optional.of(patch.version() + 1);
+        }
+        if (taskRepository.existsById(id)) {
+            throw new ObjectOptimisticLockingFailureException(Task.class, id);
+        }
+        return Optional.empty();
+    }
+
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TASKS_BY_ID, key = CacheConfig.TENANT_KEY + "#id"),
+            @CacheEvict(cacheNames = CacheConfig.TASKS_BY_NAME, allEntries = true)
+    })
+    public boolean setCompleted(long id, boolean completed){
+        if (statusBuffer.isEnabled()) {
+            String tenantId = TenantContext.getTenantId();
+            // the existence check is served by the second-level cache, a task with a pending toggle exists
+            if (statusBuffer.get(tenantId, id).isEmpty() && taskRepository.findById(id).isEmpty()) {
+                return false;
+            }
+            if (statusBuffer.offer(tenantId, id, completed)) {
+                return true;
+            }
+            // buffer full, write through
+        }
+        // usually served by the second-level cache; the priority and deadline keep the counts right
+        Optional<Task> current = taskRepository.findById(id);
+        if (current.isEmpty()) {
+            return false;
+        }
+        // no row changed when the task already has this status
+        if (taskRepository.updateCompleted(id, completed) == 1) {
+            markChanged();
+            Task task = current.get();
+            taskStatistics.record(new TaskState(id, task.getPriority(), !completed, task.getDeadLine()),
+                    new TaskState(id, task.getPriority(), completed, task.getDeadLine()));
+            eventPublisher.publishEvent(TaskEvent.updated(id));
+        }
+        return true;
+    }
+
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TASKS_BY_ID, key = CacheConfig.TENANT_KEY + "#id"),
+            @CacheEvict(cacheNames = CacheConfig.TASKS_BY_NAME, allEntries = true)
+    })
     public void deleteTask(long id){
-        taskRepository.deleteById(id);
+        discardPendingStatus(id);
+        // same queries as deleteById, but keeps the row for the delete event
+        taskRepository.findById(id).ifPresent(task -> {
+            taskRepository.delete(task);
+            markChanged();
+            taskStatistics.record(TaskState.of(task), null);
+            eventPublisher.publishEvent(TaskEvent.deleted(task));
+        });
+    }
+
+    // Leases up to limit of the most urgent open tasks to the worker, in claim order. The lock, the
+    // lease write and the read back share one short transaction, so concurrent workers get disjoint
+    // sets without queueing behind each other's row locks.
+    @Transactional
+    public List<Task> claimTasks(String worker, int limit, Instant leaseUntil){
+        List<Long> ids = taskRepository.lockClaimableIds(TenantContext.getTenantId(), Instant.now(), limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        taskRepository.claim(ids, worker, leaseUntil);
+        Map<Long, Task> claimed = taskRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getTaskId, Function.identity()));
+        return ids.stream().map(claimed::get).toList();
+    }
+
+    // false when the worker no longer holds a live lease on the task
+    @Transactional
+    public boolean renewClaim(long id, String worker, Instant leaseUntil){
+        return taskRepository.renewClaim(TenantContext.getTenantId(), id, worker, Instant.now(), leaseUntil) == 1;
+    }
+
+    @Transactional
+    public boolean releaseClaim(long id, String worker){
+        return taskRepository.releaseClaim(TenantContext.getTenantId(), id, worker) == 1;
+    }
+
+    // Writes the buffered completed toggles, one transaction per tenant: a select for the stored values
+    // and at most two UPDATEs however many tasks changed. Tasks toggled back to their stored value cost
+    // nothing, and only real changes produce events and statistics.
+    @CacheEvict(cacheNames = {CacheConfig.TASKS_BY_ID, CacheConfig.TASKS_BY_NAME}, allEntries = true, condition = "#result > 0")
+    public int flushStatuses(){
+        return statusBuffer.flush((tenantId, updates) -> {
+            try (TenantContext.Scope ignored = TenantContext.open(tenantId)) {
+                transactionTemplate.executeWithoutResult(status -> writeStatuses(updates));
+            }
+        });
+    }
+
+    private void writeStatuses(Map<Long, Boolean> updates){
+        List<TaskState> changed = taskRepository.findStatesByIdIn(updates.keySet()).stream()
+                .filter(state -> state.completed() != updates.get(state.taskId()))
+                .toList();
+        if (changed.isEmpty()) {
+            return;
+        }
+        Map<Boolean, List<Long>> byTarget = changed.stream().collect(Collectors.partitioningBy(
+                state -> !state.completed(), Collectors.mapping(TaskState::taskId, Collectors.toList())));
+        byTarget.forEach((completed, ids) -> {
+            if (!ids.isEmpty()) {
+                taskRepository.updateCompletedIn(ids, completed);
+            }
+        });
+        for (TaskState state : changed) {
+            taskStatistics.record(state, new TaskState(state.taskId(), state.priority(), !state.completed(), state.deadLine()));
+            eventPublisher.publishEvent(TaskEvent.updated(state.taskId()));
+        }
+        markChanged();
+    }
+
+    // A full write replaces any buffered toggle of the task; waits for a running flush so it lands after it
+    private void discardPendingStatus(long id){
+        statusBuffer.discard(TenantContext.getTenantId(), id);
+    }
+
+    private static Task withCompleted(Task task, boolean completed){
+        Task copy = new Task(task.getTaskId(), task.getTaskName(), task.getTaskData(), task.getPriority(),
+                task.getDeadLine(), task.getCreationDate(), completed);
+        copy.setVersion(task.getVersion());
+        copy.setTenantId(task.getTenantId());
+        return copy;
+    }
+
+    // Bulk writes run one transaction per chunk; a chunk that fails is replayed row by row
+    // so a single bad item does not fail its neighbours.
+    @CacheEvict(cacheNames = {CacheConfig.TASKS_BY_ID, CacheConfig.TASKS_BY_NAME}, allEntries = true)
+    public List<TaskBatchResult> addTasks(List<Task> tasks){
+        List<TaskBatchResult> results = new ArrayList<>(tasks.size());
+        for (int from = 0; from < tasks.size(); from += batchChunkSize) {
+            List<Task> chunk = tasks.subList(from, Math.min(from + batchChunkSize, tasks.size()));
+            int offset = from;
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    taskRepository.saveAll(chunk).forEach(saved -> {
+                        taskStatistics.record(null, TaskState.of(saved));
+                        eventPublisher.publishEvent(TaskEvent.created(saved));
+                    });
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(TaskBatchResult.success(offset + i, chunk.get(i).getTaskId(), HttpStatus.CREATED));
+                }
+            } catch (RuntimeException e) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    Task task = chunk.get(i);
+                    task.setTaskId(0);
+                    try {
+                        Task saved = transactionTemplate.execute(status -> {
+                            Task created = taskRepository.save(task);
+                            taskStatistics.record(null, TaskState.of(created));
+                            eventPublisher.publishEvent(TaskEvent.created(created));
+                            return created;
+                        });
+                        results.add(TaskBatchResult.success(offset + i, saved.getTaskId(), HttpStatus.CREATED));
+                    } catch (RuntimeException itemError) {
+                        results.add(TaskBatchResult.failure(offset + i, null, failureStatus(itemError), itemError.getMessage()));
+                    }
+                }
+            }
+        }
+        markChanged();
+        return results;
+    }
+
+    @CacheEvict(cacheNames = {CacheConfig.TASKS_BY_ID, CacheConfig.TASKS_BY_NAME}, allEntries = true)
+    public List<TaskBatchResult> updateTasks(List<Task> tasks){
+        List<TaskBatchResult> results = new ArrayList<>(tasks.size());
+        for (int from = 0; from < tasks.size(); from += batchChunkSize) {
+            List<Task> chunk = tasks.subList(from, Math.min(from + batchChunkSize, tasks.size()));
+            int offset = from;
+            try {
+                results.addAll(transactionTemplate.execute(status -> updateChunk(chunk, offset)));
+            } catch (RuntimeException e) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    int index = offset + i;
+                    List<Task> single = List.of(chunk.get(i));
+                    try {
+                        results.addAll(transactionTemplate.execute(status -> updateChunk(single, index)));
+                    } catch (RuntimeException itemError) {
+                        results.add(TaskBatchResult.failure(index, chunk.get(i).getTaskId(), failureStatus(itemError), itemError.getMessage()));
+                    }
+                }
+            }
+        }
+        markChanged();
+        return results;
+    }
+
+    private static HttpStatus failureStatus(RuntimeException e){
+        return isDuplicateName(e) ? HttpStatus.CONFLICT : HttpStatus.BAD_REQUEST;
+    }
+
+    // ux_tasks_tenant_task_name is the only unique key a client can hit. Hibernate reports it as a
+    // plain integrity violation, batched inserts included, so look for the SQL state underneath.
+    public static boolean isDuplicateName(RuntimeException e){
+        if (!(e instanceof DataIntegrityViolationException)) {
+            return false;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && UNIQUE_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Loads the whole chunk with one IN query and lets dirty checking emit batched UPDATEs
+    private List<TaskBatchResult> updateChunk(List<Task> chunk, int offset){
+        Set<Long> ids = chunk.stream().map(Task::getTaskId).collect(Collectors.toSet());
+        ids.forEach(this::discardPendingStatus);
+        Map<Long, Task> existing = taskRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getTaskId, Function.identity()));
+        List<TaskBatchResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Task update = chunk.get(i);
+            Task target = existing.get(update.getTaskId());
+            if (target == null) {
+                results.add(TaskBatchResult.failure(offset + i, update.getTaskId(), HttpStatus.NOT_FOUND, "task not found"));
+                continue;
+            }
+            TaskState before = TaskState.of(target);
+            target.setTaskName(update.getTaskName());
+            target.setTaskData(update.getTaskData());
+            target.setPriority(update.getPriority());
+            target.setDeadLine(update.getDeadLine());
+            target.setCompleted(update.isCompleted());
+            taskStatistics.record(before, TaskState.of(target));
+            eventPublisher.publishEvent(TaskEvent.updated(before, target));
+            results.add(TaskBatchResult.success(offset + i, target.getTaskId(), HttpStatus.OK));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return results;
+    }
+
+    @CacheEvict(cacheNames = {CacheConfig.TASKS_BY_ID, CacheConfig.TASKS_BY_NAME}, allEntries = true)
+    public List<TaskBatchResult> deleteTasks(List<Long> ids){
+        List<TaskBatchResult> results = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += batchChunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchChunkSize, ids.size()));
+            Set<Long> deleted = transactionTemplate.execute(status -> {
+                chunk.forEach(this::discardPendingStatus);
+                Set<Long> found = new HashSet<>();
+                for (TaskState state : taskRepository.findStatesByIdIn(chunk)) {
+                    found.add(state.taskId());
+                    taskStatistics.record(state, null);
+                    eventPublisher.publishEvent(TaskEvent.deleted(state.taskId()));
+                }
+                taskRepository.deleteAllByIdInBatch(found);
+                return found;
+            });
+            for (int i = 0; i < chunk.size(); i++) {
+                Long id = chunk.get(i);
+                results.add(deleted.contains(id)
+                        ? TaskBatchResult.success(from + i, id, HttpStatus.NO_CONTENT)
+                        : TaskBatchResult.failure(from + i, id, HttpStatus.NOT_FOUND, "task not found"));
+            }
+        }
+        markChanged();
+        return results;
+    }
+
+    // Moves completed tasks created before the cutoff into tasks_archive, one short transaction per
+    // batch so hot rows are never locked for long and rows being written are left for the next run.
+    // Covers the current tenant, or every tenant of the target in a root scope.
+    @CacheEvict(cacheNames = {CacheConfig.TASKS_BY_ID, CacheConfig.TASKS_BY_NAME}, allEntries = true)
+    public int archiveCompletedTasks(LocalDate createdBefore){
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> {
+                List<Long> ids = TenantContext.isRoot()
+                        ? taskRepository.lockArchivableIds(createdBefore, archiveBatchSize)
+                        : taskRepository.lockArchivableIdsByTenant(TenantContext.getTenantId(), createdBefore, archiveBatchSize);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                archivedTaskRepository.copyFromTasks(ids, Instant.now());
+                taskRepository.deleteAllByIdInBatch(ids);
+                // bulk statements bypass the persistence context, drop anything it still holds
+                entityManager.clear();
+                return ids.size();
+            });
+            total += moved;
+        } while (moved == archiveBatchSize);
+        if (total > 0) {
+            markChanged();
+            taskStatistics.reconcile();
+        }
+        return total;
+    }
+
+    // Weak validator for the current tenant's task lists: equal tags mean no write through this
+    // instance has completed in between and the tag is younger than tasks.etag.max-age-seconds
+    public String getChangeTag(){
+        long window = System.currentTimeMillis() / 1000 / Math.max(etagMaxAgeSeconds, 1);
+        return "W/\"" + changeEpoch + "-" + Long.toString(window, 36) + "-" + rootChangeCount.get()
+                + "-" + changeCount(TenantContext.getTenantId()).get() + "\"";
+    }
+
+    private AtomicLong changeCount(String tenantId){
+        return tenantChangeCounts.computeIfAbsent(tenantId, tenant -> new AtomicLong());
+    }
+
+    // Called after the write; inside a transaction the counter moves again once it completes, so a
+    // tag read before the commit never ends up labelling the committed data.
+    private void markChanged(){
+        AtomicLong changeCount = TenantContext.isRoot() ? rootChangeCount : changeCount(TenantContext.getTenantId());
+        changeCount.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    changeCount.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    public TaskStats getStats(){
+        return taskStatistics.getStats();
     }
 
     public List<Task> getAllTasksByPriority(TaskPriority priority){
         return taskRepository.findAllByPriority(priority);
     }
 
+    public List<Task> getAllTasksByPriority(TaskPriority priority, boolean includeArchived){
+        List<Task> tasks = taskRepository.findAllByPriority(priority);
+        return includeArchived ? withArchived(tasks, archivedTaskRepository.findAllByPriority(priority)) : tasks;
+    }
+
     public List<Task> getAllTasksByDeadLine(LocalDate date){
         return taskRepository.findAllByDeadLine(date);
     }
 
+    public List<Task> getAllTasksByDeadLine(LocalDate date, boolean includeArchived){
+        List<Task> tasks = taskRepository.findAllByDeadLine(date);
+        return includeArchived ? withArchived(tasks, archivedTaskRepository.findAllByDeadLine(date)) : tasks;
+    }
+
     public List<Task> getAllTasksByCreationDate(LocalDate date){
         return taskRepository.findAllByCreationDate(date);
     }
 
+    public List<Task> getAllTasksByCreationDate(LocalDate date, boolean includeArchived){
+        List<Task> tasks = taskRepository.findAllByCreationDate(date);
+        return includeArchived ? withArchived(tasks, archivedTaskRepository.findAllByCreationDate(date)) : tasks;
+    }
+
     public List<Task> getAllByStatus(boolean status){
         return taskRepository.findAllByCompleted(status);
     }
 
+    // the archive only holds completed tasks, so open tasks never query it
+    public List<Task> getAllByStatus(boolean status, boolean includeArchived){
+        List<Task> tasks = taskRepository.findAllByCompleted(status);
+        return includeArchived && status ? withArchived(tasks, archivedTaskRepository.findAllByCompleted(true)) : tasks;
+    }
+
+    private static List<Task> withArchived(List<Task> tasks, List<ArchivedTask> archived){
+        List<Task> all = new ArrayList<>(tasks.size() + archived.size());
+        all.addAll(tasks);
+        archived.forEach(task -> all.add(task.toTask()));
+        return all;
+    }
+
+    public Page<Task> searchTasks(TaskSearchCriteria criteria, Pageable pageable){
+        return taskRepository.findAll(TaskSpecifications.matching(criteria), pageable);
+    }
+
+    // results are ordered by rank, so any client supplied sort is dropped
+    public Slice<Task> fullTextSearch(String query, Pageable pageable){
+        return taskRepository.fullTextSearch(TenantContext.getTenantId(), query,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+    }
+
+    // Column projections for the list endpoints; "summary" expands to every field except taskData.
+    public List<Map<String, Object>> getTaskFields(TaskSearchCriteria criteria, String fields, Pageable pageable){
+        return taskRepository.findFields(TaskSpecifications.matching(criteria), parseFields(fields), pageable);
+    }
+
+    public List<Map<String, Object>> getTaskFieldsAfter(long afterId, int limit, String fields){
+        return taskRepository.findFields(TaskSpecifications.idGreaterThan(afterId), parseFields(fields), PageRequest.of(0, limit));
+    }
+
+    static List<String> parseFields(String fields){
+        List<String> parsed = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.equals("summary")) {
+                SUMMARY_FIELDS.stream().filter(f -> !parsed.contains(f)).forEach(parsed::add);
+            } else if (!TASK_FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Unknown task field: " + name);
+            } else if (!parsed.contains(name)) {
+                parsed.add(name);
+            }
+        }
+        return parsed;
+    }
+
+    @Cacheable(cacheNames = CacheConfig.TASKS_BY_NAME, key = CacheConfig.TENANT_KEY + "#name")
     public Optional<Task> getByTaskName(String name){
         return Optional.ofNullable(taskRepository.findByTaskName(name));
     }
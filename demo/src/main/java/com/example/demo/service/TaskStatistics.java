@@ -0,0 +1,161 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TaskState;
+import com.example.demo.dto.TaskStateCount;
+import com.example.demo.dto.TaskStats;
+import com.example.demo.entity.TaskPriority;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.tenant.TenantContext;
+import com.example.demo.tenant.TenantRouting;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Task counts kept in LongAdders so GET /api/tasks/stats never touches the database. TaskService
+// reports the before and after state of every write and the delta is applied to the counters of
+// the writing tenant once the write commits. Writes that bypass TaskService, races with
+// reconciliation, and open tasks whose deadline passes without a write are corrected by the
+// periodic reconcile against the table of every target.
+@Component
+public class TaskStatistics {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TenantRouting tenantRouting;
+
+    private final Map<String, Counters> tenants = new ConcurrentHashMap<>();
+    private volatile Instant reconciledAt;
+
+    // before is null for inserts, after is null for deletes
+    public void record(TaskState before, TaskState after){
+        Counters counters = counters(TenantContext.getTenantId());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counters.apply(before, after);
+                }
+            });
+        } else {
+            counters.apply(before, after);
+        }
+    }
+
+    // counts of the current tenant
+    public TaskStats getStats(){
+        Counters counters = tenants.get(TenantContext.getTenantId());
+        Map<TaskPriority, Long> priorities = new EnumMap<>(TaskPriority.class);
+        if (counters == null) {
+            for (TaskPriority priority : TaskPriority.values()) {
+                priorities.put(priority, 0L);
+            }
+            return new TaskStats(0, 0, 0, priorities, 0, reconciledAt);
+        }
+        counters.byPriority.forEach((priority, count) -> priorities.put(priority, count.sum()));
+        long totalCount = counters.total.sum();
+        long completedCount = counters.completed.sum();
+        return new TaskStats(totalCount, completedCount, totalCount - completedCount, priorities, counters.overdue.sum(), reconciledAt);
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.stats.reconcile-ms:300000}")
+    public void reconcile(){
+        LocalDate today = LocalDate.now();
+        List<TaskStateCount> counts = new ArrayList<>();
+        tenantRouting.forEachTarget(() -> counts.addAll(taskRepository.countByTenantPriorityAndCompleted(today)));
+        Map<String, Snapshot> snapshots = new HashMap<>();
+        for (TaskStateCount count : counts) {
+            snapshots.computeIfAbsent(count.tenantId(), tenant -> new Snapshot()).add(count);
+        }
+        // tenants that no longer have any task drop to zero
+        tenants.keySet().forEach(tenant -> snapshots.putIfAbsent(tenant, new Snapshot()));
+        snapshots.forEach((tenant, snapshot) -> counters(tenant).reset(snapshot));
+        reconciledAt = Instant.now();
+    }
+
+    private Counters counters(String tenantId){
+        return tenants.computeIfAbsent(tenantId, tenant -> new Counters());
+    }
+
+    private static final class Snapshot {
+
+        private long total;
+        private long completed;
+        private long overdue;
+        private final Map<TaskPriority, Long> byPriority = new EnumMap<>(TaskPriority.class);
+
+        private void add(TaskStateCount count){
+            total += count.count();
+            overdue += count.overdue();
+            if (count.completed()) {
+                completed += count.count();
+            }
+            if (count.priority() != null) {
+                byPriority.merge(count.priority(), count.count(), Long::sum);
+            }
+        }
+    }
+
+    private static final class Counters {
+
+        private final LongAdder total = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder overdue = new LongAdder();
+        private final Map<TaskPriority, LongAdder> byPriority = new EnumMap<>(TaskPriority.class);
+
+        private Counters() {
+            for (TaskPriority priority : TaskPriority.values()) {
+                byPriority.put(priority, new LongAdder());
+            }
+        }
+
+        private void apply(TaskState before, TaskState after){
+            LocalDate today = LocalDate.now();
+            if (before != null) {
+                add(before, -1, today);
+            }
+            if (after != null) {
+                add(after, 1, today);
+            }
+        }
+
+        // tasks without a priority are counted in total only
+        private void add(TaskState state, int delta, LocalDate today){
+            total.add(delta);
+            if (state.completed()) {
+                completed.add(delta);
+            }
+            if (state.isOverdue(today)) {
+                overdue.add(delta);
+            }
+            if (state.priority() != null) {
+                byPriority.get(state.priority()).add(delta);
+            }
+        }
+
+        private void reset(Snapshot snapshot){
+            reset(total, snapshot.total);
+            reset(completed, snapshot.completed);
+            byPriority.forEach((priority, count) -> reset(count, snapshot.byPriority.getOrDefault(priority, 0L)));
+            reset(overdue, snapshot.overdue);
+        }
+
+        private static void reset(LongAdder adder, long value){
+            adder.reset();
+            adder.add(value);
+        }
+    }
+}
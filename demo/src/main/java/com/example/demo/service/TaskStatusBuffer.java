@@ -0,0 +1,124 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+// Write-behind buffer for completed toggles. Only the latest value per task is kept, so any number
+// of toggles between two flushes costs one row update, or none when the task ends where it started.
+// The flush lock also orders full writes: discard waits for a running flush, so a PUT or DELETE
+// always lands after any toggle it replaces.
+@Component
+public class TaskStatusBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskStatusBuffer.class);
+
+    record Key(String tenantId, long taskId) {}
+
+    private final ConcurrentHashMap<Key, Boolean> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tasks.status.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${tasks.status.write-behind.max-pending:10000}")
+    private int maxPending;
+
+    private Counter buffered;
+    private Counter flushed;
+
+    @PostConstruct
+    void init(){
+        buffered = Counter.builder("task.status.buffered")
+                .description("Completed toggles taken into the write-behind buffer")
+                .register(meterRegistry);
+        flushed = Counter.builder("task.status.flushed")
+                .description("Tasks written by write-behind flushes; the gap to task.status.buffered is the coalesced toggles")
+                .register(meterRegistry);
+        Gauge.builder("task.status.pending", pending, Map::size)
+                .description("Tasks with a toggle not written to the database yet")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled(){
+        return enabled;
+    }
+
+    // false when the buffer already holds maxPending other tasks, the caller then writes through
+    public boolean offer(String tenantId, long taskId, boolean completed){
+        Key key = new Key(tenantId, taskId);
+        if (pending.size() >= maxPending && !pending.containsKey(key)) {
+            return false;
+        }
+        pending.put(key, completed);
+        buffered.increment();
+        return true;
+    }
+
+    public Optional<Boolean> get(String tenantId, long taskId){
+        return Optional.ofNullable(pending.get(new Key(tenantId, taskId)));
+    }
+
+    public void discard(String tenantId, long taskId){
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            pending.remove(new Key(tenantId, taskId));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int size(){
+        return pending.size();
+    }
+
+    // Hands a snapshot to the writer one tenant at a time. An entry is only removed when it still
+    // holds the written value, so a toggle that arrives during the flush is kept for the next one.
+    // A tenant whose write fails keeps its entries and is retried on the next flush.
+    public int flush(BiConsumer<String, Map<Long, Boolean>> writer){
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        flushLock.lock();
+        try {
+            Map<String, Map<Long, Boolean>> byTenant = new HashMap<>();
+            pending.forEach((key, completed) ->
+                    byTenant.computeIfAbsent(key.tenantId(), tenant -> new HashMap<>()).put(key.taskId(), completed));
+            int written = 0;
+            for (Map.Entry<String, Map<Long, Boolean>> tenant : byTenant.entrySet()) {
+                try {
+                    writer.accept(tenant.getKey(), tenant.getValue());
+                } catch (RuntimeException e) {
+                    log.warn("Flushing {} status updates of tenant {} failed, retrying on the next flush",
+                            tenant.getValue().size(), tenant.getKey(), e);
+                    continue;
+                }
+                tenant.getValue().forEach((taskId, completed) -> pending.remove(new Key(tenant.getKey(), taskId), completed));
+                written += tenant.getValue().size();
+            }
+            flushed.increment(written);
+            return written;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+}
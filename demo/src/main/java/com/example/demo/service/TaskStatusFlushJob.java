@@ -0,0 +1,27 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Drains the write-behind buffer of completed toggles. The flush interval bounds how long a toggle
+// lives only in memory; the buffer is flushed once more when the context shuts down.
+@Component
+@ConditionalOnProperty(name = "tasks.status.write-behind.enabled", havingValue = "true")
+public class TaskStatusFlushJob {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Scheduled(fixedDelayString = "${tasks.status.write-behind.flush-interval-ms:200}")
+    public void flush(){
+        taskService.flushStatuses();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown(){
+        taskService.flushStatuses();
+    }
+}
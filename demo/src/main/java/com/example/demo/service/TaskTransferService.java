@@ -0,0 +1,186 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TaskBatchResult;
+import com.example.demo.dto.TaskImportError;
+import com.example.demo.dto.TaskImportResult;
+import com.example.demo.entity.Task;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvGenerator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Bulk export and import of tasks as CSV or newline delimited JSON. Export walks the server-side
+// cursor of TaskService.streamAllTasks and import reads one row at a time into chunks written
+// through TaskService.addTasks, so memory stays constant in the size of the data.
+@Service
+public class TaskTransferService {
+
+    public static final String CSV = "text/csv";
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tasks.batch.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${tasks.import.max-errors:1000}")
+    private int maxErrors;
+
+    private ObjectWriter csvWriter;
+    private ObjectReader csvReader;
+    private Counter importedRecords;
+    private Counter failedRecords;
+
+    @PostConstruct
+    void init(){
+        CsvMapper csvMapper = CsvMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .enable(JsonGenerator.Feature.IGNORE_UNKNOWN)
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .enable(CsvGenerator.Feature.STRICT_CHECK_FOR_QUOTING)
+                .build();
+        CsvSchema.Builder columns = CsvSchema.builder();
+        TaskService.TASK_FIELDS.forEach(columns::addColumn);
+        csvWriter = csvMapper.writer(columns.setUseHeader(true).build());
+        // columns are taken from the header, so uploads may order or omit them freely
+        csvReader = csvMapper.readerFor(Task.class).with(CsvSchema.emptySchema().withHeader());
+        importedRecords = importCounter("imported");
+        failedRecords = importCounter("failed");
+    }
+
+    public void exportCsv(OutputStream out) throws IOException {
+        export(csvWriter, out);
+    }
+
+    public void exportNdjson(OutputStream out) throws IOException {
+        export(objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE).withRootValueSeparator("\n"), out);
+    }
+
+    // Ids and versions in the upload are ignored, every row is inserted as a new task. Creation dates
+    // are kept, so an export imported into another environment keeps them; rows without one get
+    // today. A row that cannot be mapped is reported and skipped; input that cannot be parsed at all
+    // ends the import.
+    public TaskImportResult importTasks(InputStream in, Format format) throws IOException {
+        ObjectReader reader = format == Format.CSV ? csvReader : objectMapper.readerFor(Task.class);
+        Progress progress = new Progress();
+        List<Task> chunk = new ArrayList<>(chunkSize);
+        List<Long> records = new ArrayList<>(chunkSize);
+        try (MappingIterator<Task> rows = reader.readValues(in)) {
+            long record = 0;
+            while (true) {
+                Task task;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    record++;
+                    task = rows.nextValue();
+                } catch (JsonParseException e) {
+                    progress.fail(record, e.getOriginalMessage());
+                    break;
+                } catch (JsonMappingException e) {
+                    progress.fail(record, e.getOriginalMessage());
+                    continue;
+                }
+                task.setTaskId(0);
+                task.setVersion(0);
+                task.setKeepCreationDate(true);
+                chunk.add(task);
+                records.add(record);
+                if (chunk.size() == chunkSize) {
+                    write(chunk, records, progress);
+                }
+            }
+        }
+        write(chunk, records, progress);
+        return new TaskImportResult(progress.imported, progress.failed, progress.errors);
+    }
+
+    private void export(ObjectWriter writer, OutputStream out) throws IOException {
+        try (SequenceWriter rows = writer.writeValues(out)) {
+            taskService.streamAllTasks(task -> {
+                try {
+                    rows.write(task);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private void write(List<Task> chunk, List<Long> records, Progress progress){
+        if (chunk.isEmpty()) {
+            return;
+        }
+        for (TaskBatchResult result : taskService.addTasks(chunk)) {
+            if (result.status() == HttpStatus.CREATED.value()) {
+                progress.imported++;
+                importedRecords.increment();
+            } else {
+                progress.fail(records.get(result.index()), result.error());
+            }
+        }
+        chunk.clear();
+        records.clear();
+    }
+
+    private Counter importCounter(String outcome){
+        return Counter.builder("task.import.records")
+                .description("Rows read by task imports, rate() of this is the import progress")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private final class Progress {
+
+        private long imported;
+        private long failed;
+        private final List<TaskImportError> errors = new ArrayList<>();
+
+        private void fail(long record, String error){
+            failed++;
+            failedRecords.increment();
+            if (errors.size() < maxErrors) {
+                errors.add(new TaskImportError(record, error));
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.demo.tenant;
+
+import reactor.util.context.ContextView;
+
+import java.util.regex.Pattern;
+
+// Tenant the current thread works for. Requests open a scope in TenantFilter; code running outside
+// a scope acts for DEFAULT_TENANT. System jobs open a ROOT scope, which Hibernate reads without the
+// tenant restriction, on one routing target at a time. Reactive requests carry the tenant in the
+// Reactor context under CONTEXT_KEY instead, see TenantWebFilter.
+public final class TenantContext {
+
+    public static final String DEFAULT_TENANT = "default";
+    public static final String ROOT = "*";
+
+    public static final String CONTEXT_KEY = TenantContext.class.getName();
+
+    private static final Pattern VALID_TENANT = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String getTenantId() {
+        Scope scope = CURRENT.get();
+        return scope == null ? DEFAULT_TENANT : scope.tenantId;
+    }
+
+    public static String getTenantId(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, DEFAULT_TENANT);
+    }
+
+    public static boolean isRoot() {
+        return ROOT.equals(getTenantId());
+    }
+
+    // explicit target of a root scope, null when the target follows from the tenant
+    static String getTarget() {
+        Scope scope = CURRENT.get();
+        return scope == null ? null : scope.target;
+    }
+
+    public static boolean isValid(String tenantId) {
+        return tenantId != null && VALID_TENANT.matcher(tenantId).matches();
+    }
+
+    public static Scope open(String tenantId) {
+        if (!isValid(tenantId)) {
+            throw new IllegalArgumentException("Invalid tenant id: " + tenantId);
+        }
+        return new Scope(tenantId, null);
+    }
+
+    public static Scope openRoot(String target) {
+        return new Scope(ROOT, target);
+    }
+
+    // for handing work to another thread, which then runs in the scope current at submission
+    public static Runnable propagate(Runnable task) {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return task;
+        }
+        return () -> {
+            try (Scope ignored = new Scope(scope.tenantId, scope.target)) {
+                task.run();
+            }
+        };
+    }
+
+    // Restores whatever scope was current when it was opened, so scopes nest
+    public static final class Scope implements AutoCloseable {
+
+        private final String tenantId;
+        private final String target;
+        private final Scope previous;
+
+        private Scope(String tenantId, String target) {
+            this.tenantId = tenantId;
+            this.target = target;
+            this.previous = CURRENT.get();
+            CURRENT.set(this);
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
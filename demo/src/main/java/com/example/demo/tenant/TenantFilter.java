@@ -0,0 +1,121 @@
+package com.example.demo.tenant;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+// Resolves the tenant of every request from the X-Tenant-Id header, DEFAULT_TENANT when it is
+// missing; tenants TenantRouting does not know are rejected with 403. The header is trusted as
+// sent, so it has to be set by a gateway that authenticated the caller. Each tenant may run at
+// most tasks.tenants.max-concurrent-requests requests at once (0 disables the limit), so one busy
+// tenant cannot hold every pooled connection; requests over the limit are rejected with 429
+// instead of queueing for a connection. Async requests (exports, NDJSON) keep their permit until
+// the response completes; event streams give it back once the handler returns, they hold no
+// connection while open and can stay open for tasks.events.timeout.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class TenantFilter extends OncePerRequestFilter {
+
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TenantRouting tenantRouting;
+
+    @Value("${tasks.tenants.max-concurrent-requests:32}")
+    private int maxConcurrentRequests;
+
+    private final Map<String, Semaphore> inFlight = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String tenantId = request.getHeader(TENANT_HEADER);
+        if (tenantId == null) {
+            tenantId = TenantContext.DEFAULT_TENANT;
+        } else if (!TenantContext.isValid(tenantId)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid " + TENANT_HEADER);
+            return;
+        } else if (!tenantRouting.isKnown(tenantId)) {
+            response.sendError(HttpStatus.FORBIDDEN.value(), "Unknown tenant");
+            return;
+        }
+        Semaphore permits = maxConcurrentRequests > 0
+                ? inFlight.computeIfAbsent(tenantId, tenant -> new Semaphore(maxConcurrentRequests)) : null;
+        if (permits != null && !permits.tryAcquire()) {
+            rejected(tenantId).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many concurrent requests for tenant");
+            return;
+        }
+        boolean async = false;
+        try (TenantContext.Scope ignored = TenantContext.open(tenantId)) {
+            chain.doFilter(request, response);
+            if (permits != null && request.isAsyncStarted() && !isEventStream(request)) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(permits));
+                async = true;
+            }
+        } finally {
+            if (permits != null && !async) {
+                permits.release();
+            }
+        }
+    }
+
+    // the emitter writes its headers lazily, so the handler mapping's produces is what tells
+    private static boolean isEventStream(HttpServletRequest request){
+        Object producible = request.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
+        return producible instanceof Set<?> types && types.contains(MediaType.TEXT_EVENT_STREAM);
+    }
+
+    private Counter rejected(String tenantId){
+        return Counter.builder("task.tenant.rejected")
+                .description("Requests rejected because the tenant was at its concurrency limit")
+                .tag("tenant", tenantId)
+                .register(meterRegistry);
+    }
+
+    // onComplete also follows timeouts and errors, so it is the one place to give the permit back
+    private record ReleaseOnComplete(Semaphore permits) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permits.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.tenant;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+// Hibernate fills the @TenantId column of new rows from this and adds tenant_id = ? to every
+// entity query of a session, except in root sessions.
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String> {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return TenantContext.getTenantId();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return true;
+    }
+
+    @Override
+    public boolean isRoot(String tenantId) {
+        return TenantContext.ROOT.equals(tenantId);
+    }
+}
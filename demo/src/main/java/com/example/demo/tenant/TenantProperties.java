@@ -0,0 +1,21 @@
+package com.example.demo.tenant;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+import java.util.Set;
+
+// tasks.tenants.registered lists the tenants on the shared database that requests may name; routed
+// tenants and DEFAULT_TENANT are always known. tasks.tenants.routes.<tenant> = <target> moves a
+// tenant off the shared database onto a target defined under tasks.tenants.targets.<target>. A target is its own connection pool; url, username
+// and password default to spring.datasource, so a target with only a schema keeps the tenant in
+// the same database but in separate tables and indexes.
+@ConfigurationProperties("tasks.tenants")
+public record TenantProperties(@DefaultValue Set<String> registered, @DefaultValue Map<String, String> routes,
+                               @DefaultValue Map<String, Target> targets) {
+
+    public record Target(String url, String username, String password, String schema,
+                         @DefaultValue("5") int maximumPoolSize) {
+    }
+}
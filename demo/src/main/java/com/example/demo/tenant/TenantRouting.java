@@ -0,0 +1,59 @@
+package com.example.demo.tenant;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Where each tenant's rows live. Jobs that work across tenants use forEachTarget, since one
+// connection only ever reaches the tables of a single target.
+@Component
+public class TenantRouting {
+
+    public static final String SHARED = "shared";
+
+    @Autowired
+    private TenantProperties properties;
+
+    private final List<String> targets = new ArrayList<>();
+
+    @PostConstruct
+    void init(){
+        if (properties.targets().containsKey(SHARED)) {
+            throw new IllegalStateException("tasks.tenants.targets." + SHARED + " is reserved for the shared database");
+        }
+        properties.routes().forEach((tenant, target) -> {
+            if (!properties.targets().containsKey(target)) {
+                throw new IllegalStateException("Tenant " + tenant + " is routed to undefined target " + target);
+            }
+        });
+        targets.add(SHARED);
+        targets.addAll(properties.targets().keySet());
+    }
+
+    public List<String> getTargets(){
+        return List.copyOf(targets);
+    }
+
+    public String getTarget(String tenantId){
+        return properties.routes().getOrDefault(tenantId, SHARED);
+    }
+
+    // Requests may only act for known tenants, which keeps the per-tenant semaphores, counters
+    // and metric tags bounded by configuration instead of by whatever headers clients send
+    public boolean isKnown(String tenantId){
+        return TenantContext.DEFAULT_TENANT.equals(tenantId) || properties.registered().contains(tenantId)
+                || properties.routes().containsKey(tenantId);
+    }
+
+    // runs the job once per target inside a root scope
+    public void forEachTarget(Runnable job){
+        for (String target : targets) {
+            try (TenantContext.Scope ignored = TenantContext.openRoot(target)) {
+                job.run();
+            }
+        }
+    }
+}
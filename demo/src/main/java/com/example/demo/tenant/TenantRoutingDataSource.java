@@ -0,0 +1,37 @@
+package com.example.demo.tenant;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+// Hands out connections from the pool of the target serving the current tenant. Transactions bind
+// their connection when they start, so the tenant has to be set before that, which TenantFilter
+// does for requests and TenantRouting.forEachTarget for jobs.
+public class TenantRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final Map<String, String> routes;
+    private final Map<String, DataSource> targets;
+
+    public TenantRoutingDataSource(Map<String, String> routes, DataSource shared, Map<String, DataSource> targets) {
+        this.routes = Map.copyOf(routes);
+        this.targets = Map.copyOf(targets);
+        Map<Object, Object> lookup = new HashMap<>(targets);
+        lookup.put(TenantRouting.SHARED, shared);
+        setTargetDataSources(lookup);
+        setDefaultTargetDataSource(shared);
+        afterPropertiesSet();
+    }
+
+    // the dedicated pools, without the shared one
+    public Map<String, DataSource> getTargets() {
+        return targets;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String target = TenantContext.getTarget();
+        return target != null ? target : routes.getOrDefault(TenantContext.getTenantId(), TenantRouting.SHARED);
+    }
+}
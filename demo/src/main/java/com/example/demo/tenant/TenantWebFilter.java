@@ -0,0 +1,35 @@
+package com.example.demo.tenant;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+// Reactive counterpart of TenantFilter: the tenant travels in the Reactor context, since a request
+// hops between event loop threads.
+@Component
+@Profile("reactive")
+public class TenantWebFilter implements WebFilter {
+
+    @Autowired
+    private TenantRouting tenantRouting;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String header = exchange.getRequest().getHeaders().getFirst(TenantFilter.TENANT_HEADER);
+        if (header != null && !TenantContext.isValid(header)) {
+            exchange.getResponse().setStatusCode(HttpStatus.BAD_REQUEST);
+            return exchange.getResponse().setComplete();
+        }
+        String tenantId = header == null ? TenantContext.DEFAULT_TENANT : header;
+        if (!tenantRouting.isKnown(tenantId)) {
+            exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
+            return exchange.getResponse().setComplete();
+        }
+        return chain.filter(exchange).contextWrite(context -> context.put(TenantContext.CONTEXT_KEY, tenantId));
+    }
+}
@@ -0,0 +1,12 @@
+-- One row per deadline event published. Every instance runs its own deadline wheel; the first one
+-- to insert the row publishes the event, the others find it and skip. Rows are pruned once their
+-- deadline falls out of tasks.deadlines.catch-up-days.
+create table if not exists task_deadline_notices (
+    task_id   bigint      not null,
+    kind      varchar(16) not null,
+    dead_line date        not null,
+    fired_at  timestamptz not null,
+    primary key (task_id, kind, dead_line)
+);
+
+create index if not exists ix_task_deadline_notices_dead_line on task_deadline_notices (dead_line);
@@ -0,0 +1,15 @@
+-- Baseline schema. IF NOT EXISTS keeps this safe on databases created earlier by ddl-auto=update.
+create table if not exists tasks (
+    task_id       bigint       not null primary key,
+    task_name     varchar(255),
+    task_data     varchar(255),
+    priority      varchar(255) check (priority in ('HIGH', 'MEDIUM', 'LOW')),
+    dead_line     date,
+    creation_date date,
+    completed     boolean      not null
+);
+
+create sequence if not exists tasks_seq start with 1 increment by 50;
+
+-- Hibernate's pooled optimizer hands out (nextval - 49 .. nextval), so move the sequence past existing ids.
+select setval('tasks_seq', (select coalesce(max(task_id), 0) + 50 from tasks));
@@ -0,0 +1,21 @@
+-- TaskRepository.findByTaskName expects a single row per name. Databases created by ddl-auto may
+-- already hold duplicates: the oldest row keeps the name, later ones get their task_id appended.
+update tasks t set task_name = t.task_name || ' #' || t.task_id
+where exists (select 1 from tasks o where o.task_name = t.task_name and o.task_id < t.task_id);
+
+create unique index if not exists ux_tasks_task_name on tasks (task_name);
+
+-- findAllByPriority
+create index if not exists ix_tasks_priority on tasks (priority, task_id);
+
+-- findAllByDeadLine
+create index if not exists ix_tasks_dead_line on tasks (dead_line);
+
+-- findAllByCreationDate
+create index if not exists ix_tasks_creation_date on tasks (creation_date);
+
+-- findAllByCompleted, keyed by task_id so results come back in insertion order
+create index if not exists ix_tasks_completed on tasks (completed, task_id);
+
+-- open tasks by deadline, the working set for reminders and dashboards
+create index if not exists ix_tasks_open_dead_line on tasks (dead_line) where completed = false;
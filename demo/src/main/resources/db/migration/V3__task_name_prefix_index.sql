@@ -0,0 +1,2 @@
+-- LIKE 'prefix%' only uses a btree in non-C collations when it is built with pattern ops.
+create index if not exists ix_tasks_task_name_prefix on tasks (task_name varchar_pattern_ops);
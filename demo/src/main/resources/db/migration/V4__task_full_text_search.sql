@@ -0,0 +1,8 @@
+-- Postgres keeps the document vector and its GIN index up to date on every write.
+alter table tasks add column if not exists search_vector tsvector
+    generated always as (
+        setweight(to_tsvector('english', coalesce(task_name, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(task_data, '')), 'B')
+    ) stored;
+
+create index if not exists ix_tasks_search_vector on tasks using gin (search_vector);
@@ -0,0 +1,2 @@
+-- Optimistic locking column for Task (@Version); every UPDATE bumps it.
+alter table tasks add column if not exists version bigint not null default 0;
@@ -0,0 +1,10 @@
+-- Events written in the same transaction as the task change; rows are deleted once delivered.
+create table if not exists task_outbox (
+    id         bigint      not null primary key,
+    event_type varchar(16) not null,
+    task_id    bigint      not null,
+    payload    text        not null,
+    created_at timestamptz not null
+);
+
+create sequence if not exists task_outbox_seq start with 1 increment by 50;
@@ -0,0 +1,19 @@
+-- Completed tasks moved out of the hot table by TaskService.archiveCompletedTasks.
+create table if not exists tasks_archive (
+    task_id       bigint       not null primary key,
+    task_name     varchar(255),
+    task_data     varchar(255),
+    priority      varchar(255) check (priority in ('HIGH', 'MEDIUM', 'LOW')),
+    dead_line     date,
+    creation_date date,
+    completed     boolean      not null,
+    version       bigint       not null,
+    archived_at   timestamptz  not null
+);
+
+create index if not exists ix_tasks_archive_priority on tasks_archive (priority, task_id);
+create index if not exists ix_tasks_archive_dead_line on tasks_archive (dead_line);
+create index if not exists ix_tasks_archive_creation_date on tasks_archive (creation_date);
+
+-- candidates for the next archive batch
+create index if not exists ix_tasks_archivable on tasks (creation_date) where completed = true;
@@ -0,0 +1,46 @@
+-- Tenant dimension. Existing rows belong to the default tenant; the default is dropped afterwards
+-- so a write that does not set the tenant fails instead of landing in someone else's data.
+alter table tasks add column if not exists tenant_id varchar(64) not null default 'default';
+alter table tasks alter column tenant_id drop default;
+alter table tasks_archive add column if not exists tenant_id varchar(64) not null default 'default';
+alter table tasks_archive alter column tenant_id drop default;
+
+-- Every index used by tenant queries leads with tenant_id, so a tenant only walks its own part of
+-- the index however many rows other tenants hold.
+
+-- keyset pages and the export cursor
+create index if not exists ix_tasks_tenant_task_id on tasks (tenant_id, task_id);
+
+-- task names are unique per tenant, not globally
+drop index if exists ux_tasks_task_name;
+create unique index if not exists ux_tasks_tenant_task_name on tasks (tenant_id, task_name);
+
+drop index if exists ix_tasks_task_name_prefix;
+create index if not exists ix_tasks_tenant_task_name_prefix on tasks (tenant_id, task_name varchar_pattern_ops);
+
+drop index if exists ix_tasks_priority;
+create index if not exists ix_tasks_tenant_priority on tasks (tenant_id, priority, task_id);
+
+drop index if exists ix_tasks_dead_line;
+create index if not exists ix_tasks_tenant_dead_line on tasks (tenant_id, dead_line);
+
+drop index if exists ix_tasks_creation_date;
+create index if not exists ix_tasks_tenant_creation_date on tasks (tenant_id, creation_date);
+
+drop index if exists ix_tasks_completed;
+create index if not exists ix_tasks_tenant_completed on tasks (tenant_id, completed, task_id);
+
+-- btree_gin lets the GIN index lead with the tenant (a trusted extension since PostgreSQL 13)
+create extension if not exists btree_gin;
+drop index if exists ix_tasks_search_vector;
+create index if not exists ix_tasks_tenant_search_vector on tasks using gin (tenant_id, search_vector);
+
+drop index if exists ix_tasks_archive_priority;
+create index if not exists ix_tasks_archive_tenant_priority on tasks_archive (tenant_id, priority, task_id);
+drop index if exists ix_tasks_archive_dead_line;
+create index if not exists ix_tasks_archive_tenant_dead_line on tasks_archive (tenant_id, dead_line);
+drop index if exists ix_tasks_archive_creation_date;
+create index if not exists ix_tasks_archive_tenant_creation_date on tasks_archive (tenant_id, creation_date);
+
+-- ix_tasks_open_dead_line and ix_tasks_archivable stay as they are: they serve the deadline
+-- scheduler and the archive job, which scan across all tenants of a target.
@@ -0,0 +1,16 @@
+-- Work-queue leases. A task is claimable while it is open and its lease is missing or expired.
+alter table tasks add column if not exists claimed_by varchar(64);
+alter table tasks add column if not exists claim_expires_at timestamptz;
+
+-- Claim order: priority rank, then deadline, then id. The rank expression and the predicate must stay
+-- identical to TaskRepository.lockClaimableIds so the planner walks this index and stops at the limit.
+-- Leased rows are filtered on the way; there are only as many of them as workers hold.
+create index if not exists ix_tasks_tenant_claim_order on tasks (
+    tenant_id,
+    (case priority when 'HIGH' then 0 when 'MEDIUM' then 1 else 2 end),
+    dead_line,
+    task_id
+) where completed = false;
+
+-- Lease columns are not indexed, so renewing a lease can be a HOT update when the page has room.
+alter table tasks set (fillfactor = 90);
@@ -0,0 +1,104 @@
+package com.example.demo;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Runs the Flyway migrations against a real PostgreSQL; H2 cannot run the full-text, btree_gin or
+// partial index scripts. Skipped when no Docker daemon is available.
+class FlywayMigrationTest {
+
+    private static PostgreSQLContainer<?> postgres;
+
+    @BeforeAll
+    static void startPostgres() {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+    }
+
+    @AfterAll
+    static void stopPostgres() {
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Test
+    void migratesAnEmptyDatabase() throws SQLException {
+        String database = createDatabase("fresh");
+        Flyway flyway = flyway(database);
+
+        assertTrue(flyway.migrate().success);
+        assertEquals(0, flyway.info().pending().length);
+        try (Connection connection = connect(database); Statement statement = connection.createStatement()) {
+            statement.execute("insert into tasks (task_id, task_name, completed, tenant_id) values (1, 'Task', false, 'a')");
+            statement.execute("insert into tasks (task_id, task_name, completed, tenant_id) values (2, 'Task', false, 'b')");
+            SQLException duplicate = assertThrows(SQLException.class, () ->
+                    statement.execute("insert into tasks (task_id, task_name, completed, tenant_id) values (3, 'Task', false, 'a')"));
+            assertEquals("23505", duplicate.getSQLState());
+        }
+    }
+
+    @Test
+    void migratesADatabaseCreatedByDdlAutoWithDuplicateNames() throws SQLException {
+        String database = createDatabase("legacy");
+        try (Connection connection = connect(database); Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    create table tasks (
+                        task_id bigint not null primary key, task_name varchar(255), task_data varchar(255),
+                        priority varchar(255), dead_line date, creation_date date, completed boolean not null)""");
+            statement.execute("""
+                    insert into tasks (task_id, task_name, completed) values
+                        (1, 'Report', false), (2, 'Report', true), (3, 'Other', false), (4, 'Report', false)""");
+        }
+
+        assertTrue(flyway(database).migrate().success);
+
+        try (Connection connection = connect(database); Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("select task_name, tenant_id from tasks order by task_id")) {
+            List<String> names = new ArrayList<>();
+            while (rows.next()) {
+                names.add(rows.getString(1));
+                assertEquals("default", rows.getString(2));
+            }
+            assertEquals(List.of("Report", "Report #2", "Other", "Report #4"), names);
+        }
+    }
+
+    private static Flyway flyway(String database) {
+        return Flyway.configure()
+                .dataSource(database, postgres.getUsername(), postgres.getPassword())
+                // as in application.properties, so schemas created before Flyway are picked up
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load();
+    }
+
+    // one database per test, extensions such as btree_gin are per database
+    private static String createDatabase(String name) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("create database " + name);
+        }
+        return "jdbc:postgresql://%s:%d/%s".formatted(postgres.getHost(), postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT), name);
+    }
+
+    private static Connection connect(String database) throws SQLException {
+        return DriverManager.getConnection(database, postgres.getUsername(), postgres.getPassword());
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.Task;
+import com.example.demo.entity.TaskPriority;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+@ActiveProfiles({"reactive", "test"})
+class ReactiveTaskControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        task = new Task();
+        task.setTaskName("Reactive");
+        task.setTaskData("Serve tasks from the event loop");
+        task.setPriority(TaskPriority.MEDIUM);
+        task.setDeadLine(LocalDate.parse("2031-03-01"));
+        task.setCompleted(false);
+    }
+
+    @Test
+    public void testCreateAndGetTask() {
+        Task created = webTestClient.post().uri("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(task)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Task.class)
+                .returnResult().getResponseBody();
+
+        assertThat(created).isNotNull();
+        assertThat(created.getTaskId()).isGreaterThan(0L);
+
+        webTestClient.post().uri("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(task)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+
+        webTestClient.get().uri("/api/tasks/{id}", created.getTaskId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.taskName").isEqualTo("Reactive")
+                .jsonPath("$.priority").isEqualTo("MEDIUM")
+                .jsonPath("$.deadLine").isEqualTo("2031-03-01");
+
+        webTestClient.get().uri("/api/tasks/priority/{priority}", TaskPriority.MEDIUM)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[?(@.taskId == %s)].taskName".formatted(created.getTaskId())).isEqualTo("Reactive");
+
+        webTestClient.delete().uri("/api/tasks/{id}", created.getTaskId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.get().uri("/api/tasks/{id}", created.getTaskId())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void testUpdateTask() {
+        Task created = webTestClient.post().uri("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(task)
+                .exchange()
+                .expectBody(Task.class)
+                .returnResult().getResponseBody();
+        task.setCompleted(true);
+
+        webTestClient.put().uri("/api/tasks/{id}", created.getTaskId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(task)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.completed").isEqualTo(true);
+
+        webTestClient.delete().uri("/api/tasks/{id}", created.getTaskId())
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    @Test
+    public void testPatchAndUpdateAreGuardedByVersion() {
+        task.setTaskName("ReactiveVersioned");
+        Task created = webTestClient.post().uri("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(task)
+                .exchange()
+                .expectBody(Task.class)
+                .returnResult().getResponseBody();
+
+        webTestClient.patch().uri("/api/tasks/{id}", created.getTaskId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"priority\":\"LOW\",\"version\":0}")
+                .exchange()
+                .expectStatus().isNoContent()
+                .expectHeader().valueEquals("ETag", "\"1\"");
+        webTestClient.patch().uri("/api/tasks/{id}", created.getTaskId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"priority\":\"HIGH\",\"version\":0}")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+        webTestClient.patch().uri("/api/tasks/{id}", created.getTaskId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"priority\":\"HIGH\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.patch().uri("/api/tasks/{id}", created.getTaskId() + 1000)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"version\":0}")
+                .exchange()
+                .expectStatus().isNotFound();
+
+        // created still holds version 0
+        webTestClient.put().uri("/api/tasks/{id}", created.getTaskId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(created)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+        webTestClient.put().uri("/api/tasks/{id}", created.getTaskId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"taskName\":\"ReactiveVersioned\",\"priority\":\"MEDIUM\",\"completed\":true}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.priority").isEqualTo("MEDIUM")
+                .jsonPath("$.version").isEqualTo(2);
+
+        webTestClient.delete().uri("/api/tasks/{id}", created.getTaskId())
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    @Test
+    public void testInvalidDeadLine() {
+        webTestClient.get().uri("/api/tasks/deadline/{date}", "not-a-date")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
@@ -1,10 +1,23 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.TaskPatch;
+import com.example.demo.dto.TaskStats;
+import com.example.demo.ratelimit.RateLimitInterceptor;
 import com.example.demo.entity.Task;
 import com.example.demo.entity.TaskPriority;
+import com.example.demo.repository.TaskRepository;
 import com.example.demo.service.TaskService;
+import com.example.demo.service.TaskStatistics;
+import com.example.demo.tenant.TenantContext;
+import com.example.demo.tenant.TenantFilter;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +26,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 
 import java.time.LocalDate;
@@ -20,10 +35,16 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+        "tasks.tenants.registered = acme,globex,claims,names,names-other,l2,etag-other,transfer-source,transfer-target",
+        // MockMvc requests come from 127.0.0.1, so X-Client-Id tells the test clients apart
+        "tasks.ratelimit.trusted-proxies = 127.0.0.1"})
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
 class TaskControllerTest {
@@ -39,6 +60,18 @@ class TaskControllerTest {
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private TaskStatistics taskStatistics;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
     @BeforeEach
     void setUp() {
         task = new Task();
@@ -51,6 +84,7 @@ class TaskControllerTest {
     }
 
     @Test
+    @Transactional
     public void testCreateTask() throws Exception {
         mockMvc.perform(post("/api/tasks")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -100,6 +134,34 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$[1].taskName").value("Task2"));
     }
 
+    @Test
+    @Transactional
+    public void testGetAllAvailableTasksWithCursor() throws Exception{
+        Task task1 = new Task("Task2","This is task 2",TaskPriority.HIGH,LocalDate.now(),LocalDate.now(),false);
+        Task task2 = new Task("Task3","This is task 3",TaskPriority.LOW,LocalDate.now(),LocalDate.now(),false);
+        Task first = taskService.addTask(task);
+        Task second = taskService.addTask(task1);
+        taskService.addTask(task2);
+
+        mockMvc.perform(get("/api/tasks")
+                .param("after", String.valueOf(first.getTaskId() - 1))
+                .param("limit", "2")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", String.valueOf(second.getTaskId())))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].taskName").value("Task2"));
+
+        mockMvc.perform(get("/api/tasks")
+                .param("after", String.valueOf(second.getTaskId()))
+                .param("limit", "2")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].taskName").value("Task3"));
+    }
+
     @Test
     @Transactional
     public void testUpdateTask() throws Exception{
@@ -115,6 +177,569 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.taskName").value("Task2"));
     }
 
+    @Test
+    @Transactional
+    public void testCachedTaskIsInvalidatedOnUpdate() throws Exception{
+        Task task1 = new Task("Task2","This is task 2",TaskPriority.HIGH,LocalDate.now(),LocalDate.now(),false);
+        Task added = taskService.addTask(task);
+
+        mockMvc.perform(get("/api/tasks/{id}",added.getTaskId())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.taskName").value("ToDo"));
+
+        taskService.updateTask(added.getTaskId(), task1);
+
+        mockMvc.perform(get("/api/tasks/{id}",added.getTaskId())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.taskName").value("Task2"));
+
+        taskService.deleteTask(added.getTaskId());
+
+        mockMvc.perform(get("/api/tasks/{id}",added.getTaskId())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void testPatchTaskWithVersion() throws Exception{
+        Task added = taskService.addTask(task);
+
+        mockMvc.perform(patch("/api/tasks/{id}",added.getTaskId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"priority\":\"LOW\",\"version\":0}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "\"1\""));
+
+        mockMvc.perform(patch("/api/tasks/{id}",added.getTaskId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"priority\":\"HIGH\",\"version\":0}"))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(put("/api/tasks/{id}/completed/true",added.getTaskId()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/tasks/{id}",added.getTaskId())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.priority").value("LOW"))
+                .andExpect(jsonPath("$.completed").value(true))
+                .andExpect(jsonPath("$.version").value(2));
+
+        mockMvc.perform(patch("/api/tasks/{id}",added.getTaskId() + 1000)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"version\":0}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void testPutWithoutVersionReplacesTask() throws Exception{
+        Task added = taskService.addTask(task);
+        taskService.setCompleted(added.getTaskId(), true);
+
+        // a body without a version, as sent before tasks had one
+        mockMvc.perform(put("/api/tasks/{id}",added.getTaskId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"taskName\":\"Replaced\",\"priority\":\"LOW\",\"completed\":false}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.taskName").value("Replaced"));
+
+        mockMvc.perform(put("/api/tasks/{id}",added.getTaskId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"taskName\":\"Stale\",\"priority\":\"LOW\",\"completed\":false,\"version\":0}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @Transactional
+    public void testConditionalGetByPriority() throws Exception{
+        Task added = taskService.addTask(task);
+
+        String etag = mockMvc.perform(get("/api/tasks/priority/{priority}",TaskPriority.HIGH))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", startsWith("W/")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/tasks/priority/{priority}",TaskPriority.HIGH)
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // another tenant's writes leave this tenant's lists valid
+        mockMvc.perform(post("/api/tasks").header(TenantFilter.TENANT_HEADER, "etag-other")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new Task("Other tenant","other",TaskPriority.HIGH,LocalDate.now(),LocalDate.now(),false))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/tasks/priority/{priority}",TaskPriority.HIGH)
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/api/tasks/{id}/completed/true",added.getTaskId()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/tasks/priority/{priority}",TaskPriority.HIGH)
+                .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+    }
+
+    @Test
+    public void testStreamTaskEventsByPriority() throws Exception{
+        MvcResult result = mockMvc.perform(get("/api/tasks/events").param("priority", "LOW"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        Task low = taskService.addTask(new Task("EventLow","low priority task",TaskPriority.LOW,LocalDate.now(),LocalDate.now(),false));
+        Task high = taskService.addTask(new Task("EventHigh","high priority task",TaskPriority.HIGH,LocalDate.now(),LocalDate.now(),false));
+        taskService.deleteTask(low.getTaskId());
+        taskService.deleteTask(high.getTaskId());
+
+        String events = awaitEvents(result, "TaskDeleted");
+        assertThat(events).contains("event:TaskCreated", "event:TaskDeleted", "EventLow");
+        assertThat(events).doesNotContain("EventHigh");
+    }
+
+    @Test
+    public void testStreamTaskEventsIncludeTasksLeavingFilter() throws Exception{
+        MvcResult result = mockMvc.perform(get("/api/tasks/events").param("completed", "false"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        Task open = taskService.addTask(new Task("EventLeaving","completed by a full update",TaskPriority.LOW,LocalDate.now(),LocalDate.now(),false));
+        taskService.updateTask(open.getTaskId(), new Task("EventLeaving","completed by a full update",TaskPriority.LOW,LocalDate.now(),LocalDate.now(),true));
+        taskService.deleteTask(open.getTaskId());
+
+        String events = awaitEvents(result, "TaskDeleted");
+        assertThat(events).contains("event:TaskUpdated", "\"completed\":true");
+    }
+
+    @Test
+    public void testLastEventIdFromAnotherInstanceGetsReset() throws Exception{
+        MvcResult live = mockMvc.perform(get("/api/tasks/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        Task task = taskService.addTask(new Task("EventEpoch","",TaskPriority.LOW,LocalDate.now(),LocalDate.now(),false));
+        String lastEventId = awaitEvents(live, "EventEpoch").lines()
+                .filter(line -> line.startsWith("id:")).reduce((first, second) -> second).orElseThrow().substring(3);
+        taskService.deleteTask(task.getTaskId());
+
+        // an id of this instance is replayed from
+        MvcResult resumed = mockMvc.perform(get("/api/tasks/events").header("Last-Event-ID", lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(awaitEvents(resumed, "TaskDeleted")).doesNotContain("event:reset");
+
+        // a bare offset, as issued before a restart, or an id of another instance is not
+        for (String foreign : List.of("1", "0abc-1")) {
+            MvcResult reset = mockMvc.perform(get("/api/tasks/events").header("Last-Event-ID", foreign))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            assertThat(awaitEvents(reset, "event:reset")).contains("event:reset");
+        }
+    }
+
+    private static String awaitEvents(MvcResult result, String until) throws Exception{
+        String events = "";
+        for (int i = 0; i < 50 && !events.contains(until); i++) {
+            Thread.sleep(100);
+            events = result.getResponse().getContentAsString();
+        }
+        return events;
+    }
+
+    @Test
+    @Transactional
+    public void testArchiveCompletedTasks() throws Exception{
+        Task old = taskService.addTask(new Task("ArchivedTask","completed long ago",TaskPriority.LOW,LocalDate.now(),LocalDate.now(),true));
+        taskService.archiveCompletedTasks(LocalDate.now().plusDays(1));
+
+        mockMvc.perform(get("/api/tasks/{id}",old.getTaskId()))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/tasks/{id}",old.getTaskId()).param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.taskName").value("ArchivedTask"));
+
+        mockMvc.perform(get("/api/tasks/priority/{priority}",TaskPriority.LOW).param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].taskName", hasItem("ArchivedTask")));
+    }
+
+    @Test
+    public void testGetStatsTracksWrites() throws Exception{
+        taskStatistics.reconcile();
+        TaskStats before = taskStatistics.getStats();
+
+        Task added = taskService.addTask(new Task("StatsTask","counted task",TaskPriority.MEDIUM,LocalDate.now(),LocalDate.now(),false));
+        taskService.setCompleted(added.getTaskId(), true);
+
+        mockMvc.perform(get("/api/tasks/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(before.total() + 1))
+                .andExpect(jsonPath("$.completed").value(before.completed() + 1))
+                .andExpect(jsonPath("$.byPriority.MEDIUM").value(before.byPriority().get(TaskPriority.MEDIUM) + 1));
+
+        taskService.deleteTask(added.getTaskId());
+        assertThat(taskStatistics.getStats().total()).isEqualTo(before.total());
+    }
+
+    @Test
+    public void testOverdueCountFollowsWrites() throws Exception{
+        long overdue = taskStatistics.getStats().overdue();
+
+        Task late = taskService.addTask(new Task("OverdueStats","past its deadline",TaskPriority.LOW,LocalDate.now().minusDays(3),LocalDate.now().minusDays(5),false));
+        assertThat(taskStatistics.getStats().overdue()).isEqualTo(overdue + 1);
+
+        // completing, re-dating and deleting count at once, without waiting for reconcile
+        taskService.setCompleted(late.getTaskId(), true);
+        assertThat(taskStatistics.getStats().overdue()).isEqualTo(overdue);
+        taskService.setCompleted(late.getTaskId(), false);
+        assertThat(taskStatistics.getStats().overdue()).isEqualTo(overdue + 1);
+        Task reloaded = taskService.getTask(late.getTaskId()).orElseThrow();
+        taskService.patchTask(late.getTaskId(), new TaskPatch(null, null, null, LocalDate.now().plusDays(3), null, reloaded.getVersion()));
+        assertThat(taskStatistics.getStats().overdue()).isEqualTo(overdue);
+        taskService.patchTask(late.getTaskId(), new TaskPatch(null, null, null, LocalDate.now().minusDays(1), null, reloaded.getVersion() + 1));
+        assertThat(taskStatistics.getStats().overdue()).isEqualTo(overdue + 1);
+        taskService.deleteTask(late.getTaskId());
+        mockMvc.perform(get("/api/tasks/stats"))
+                .andExpect(jsonPath("$.overdue").value(overdue));
+    }
+
+    @Test
+    public void testImportAndExportCsv() throws Exception{
+        String csv = "taskName,taskData,priority,deadLine,completed\n"
+                + "ImportA,first imported task,HIGH,2025-01-10,false\n"
+                + "ImportB,second imported task,URGENT,2025-01-11,false\n"
+                + "ImportC,\"third, with a comma\",LOW,,true\n";
+
+        try {
+            mockMvc.perform(post("/api/tasks/import")
+                    .contentType("text/csv")
+                    .content(csv))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.imported").value(2))
+                    .andExpect(jsonPath("$.failed").value(1))
+                    .andExpect(jsonPath("$.errors[0].record").value(2));
+
+            MvcResult export = mockMvc.perform(get("/api/tasks/export").accept("text/csv"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(export))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(startsWith("taskId,taskName,taskData,priority,deadLine,creationDate,completed\n")))
+                    .andExpect(content().string(containsString(",ImportA,first imported task,HIGH,2025-01-10,")))
+                    .andExpect(content().string(containsString(",ImportC,\"third, with a comma\",LOW,,")));
+        } finally {
+            taskService.getByTaskName("ImportA").ifPresent(task -> taskService.deleteTask(task.getTaskId()));
+            taskService.getByTaskName("ImportC").ifPresent(task -> taskService.deleteTask(task.getTaskId()));
+        }
+    }
+
+    @Test
+    public void testExportImportRoundTripKeepsCreationDates() throws Exception{
+        String csv = "taskName,taskData,priority,deadLine,creationDate,completed\n"
+                + "Migrated,created long ago,HIGH,2025-01-10,2023-06-01,false\n"
+                + "Undated,no creation date,LOW,,,true\n";
+        mockMvc.perform(post("/api/tasks/import").header(TenantFilter.TENANT_HEADER, "transfer-source")
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2));
+
+        String exported = export("transfer-source");
+        mockMvc.perform(post("/api/tasks/import").header(TenantFilter.TENANT_HEADER, "transfer-target")
+                .contentType("application/x-ndjson")
+                .content(exported))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2));
+
+        String migrated = export("transfer-target");
+        assertThat(migrated).contains("\"taskName\":\"Migrated\"", "\"creationDate\":\"2023-06-01\"",
+                "\"creationDate\":\"" + LocalDate.now() + "\"");
+        assertThat(migrated.lines()).hasSize(2);
+
+        for (String tenant : List.of("transfer-source", "transfer-target")) {
+            try (TenantContext.Scope ignored = TenantContext.open(tenant)) {
+                taskService.getByTaskName("Migrated").ifPresent(task -> taskService.deleteTask(task.getTaskId()));
+                taskService.getByTaskName("Undated").ifPresent(task -> taskService.deleteTask(task.getTaskId()));
+            }
+        }
+    }
+
+    private String export(String tenant) throws Exception{
+        MvcResult export = mockMvc.perform(get("/api/tasks/export").header(TenantFilter.TENANT_HEADER, tenant)
+                .accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Test
+    public void testListEndpointsAreRateLimitedPerClient() throws Exception{
+        int rejected = 0;
+        String retryAfter = null;
+        for (int i = 0; i < 100 && rejected == 0; i++) {
+            MvcResult result = mockMvc.perform(get("/api/tasks/status/{status}",true)
+                    .header(RateLimitInterceptor.CLIENT_HEADER, "greedy-client"))
+                    .andReturn();
+            if (result.getResponse().getStatus() == 429) {
+                rejected++;
+                retryAfter = result.getResponse().getHeader("Retry-After");
+            }
+        }
+        assertThat(rejected).isEqualTo(1);
+        assertThat(Integer.parseInt(retryAfter)).isPositive();
+
+        // other clients and cheaper budgets are unaffected
+        mockMvc.perform(get("/api/tasks/status/{status}",true).header(RateLimitInterceptor.CLIENT_HEADER, "polite-client"))
+                .andExpect(status().is2xxSuccessful());
+        mockMvc.perform(get("/api/tasks/stats").header(RateLimitInterceptor.CLIENT_HEADER, "greedy-client"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testExportStaysOutOfConcurrencyLimit() throws Exception{
+        double idle = inFlight();
+        long timed = meterRegistry.get("task.ratelimit.latency").timer().count();
+        MvcResult export = mockMvc.perform(get("/api/tasks/export").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(inFlight()).isEqualTo(idle);
+
+        mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk());
+        assertThat(inFlight()).isEqualTo(idle);
+        assertThat(meterRegistry.get("task.ratelimit.latency").timer().count()).isEqualTo(timed);
+    }
+
+    @Test
+    public void testServiceAndPoolMetricsAreRegistered() throws Exception{
+        mockMvc.perform(get("/api/tasks/priority/{priority}",TaskPriority.LOW))
+                .andExpect(status().is2xxSuccessful());
+
+        Timer latency = meterRegistry.get("task.service").tag("method", "getAllTasksByPriority").timer();
+        assertThat(latency.count()).isPositive();
+        assertThat(latency.takeSnapshot().percentileValues())
+                .extracting(ValueAtPercentile::percentile)
+                .containsExactly(0.5, 0.99, 0.999);
+        assertThat(meterRegistry.get("task.service.active").longTaskTimer()).isNotNull();
+        assertThat(meterRegistry.get("http.server.requests.active").longTaskTimer()).isNotNull();
+        assertThat(meterRegistry.get("task.service.result.size").tag("method", "getAllTasksByPriority").summary().count()).isPositive();
+        assertThat(meterRegistry.get("hikaricp.connections.pending").gauge()).isNotNull();
+        assertThat(meterRegistry.get("hikaricp.connections.acquire").timer()).isNotNull();
+    }
+
+    private double inFlight(){
+        return meterRegistry.get("task.ratelimit.concurrency.inflight").gauge().value();
+    }
+
+    @Test
+    public void testClientIdFromUntrustedAddressIsIgnored() throws Exception{
+        int rejected = 0;
+        for (int i = 0; i < 100 && rejected == 0; i++) {
+            String client = "rotating-" + i;
+            MvcResult result = mockMvc.perform(get("/api/tasks/status/{status}",true)
+                    .header(RateLimitInterceptor.CLIENT_HEADER, client)
+                    .with(request -> {
+                        request.setRemoteAddr("192.0.2.7");
+                        return request;
+                    }))
+                    .andReturn();
+            if (result.getResponse().getStatus() == 429) {
+                rejected++;
+            }
+        }
+        assertThat(rejected).isEqualTo(1);
+    }
+
+    // not @Transactional: a test transaction would pin every request to the default tenant's session
+    @Test
+    public void testTenantsAreIsolated() throws Exception{
+        Task tenantTask = new Task("TenantTask","only visible to acme",TaskPriority.LOW,LocalDate.now(),LocalDate.now(),false);
+        MvcResult created = mockMvc.perform(post("/api/tasks")
+                .header(TenantFilter.TENANT_HEADER, "acme")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(tenantTask)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.tenantId").value("acme"))
+                .andReturn();
+        long id = objectMapper.readValue(created.getResponse().getContentAsString(), Task.class).getTaskId();
+
+        try {
+            mockMvc.perform(get("/api/tasks/{id}",id).header(TenantFilter.TENANT_HEADER, "acme"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.taskName").value("TenantTask"));
+            mockMvc.perform(get("/api/tasks/{id}",id))
+                    .andExpect(status().isNotFound());
+            mockMvc.perform(get("/api/tasks/{id}",id).header(TenantFilter.TENANT_HEADER, "globex"))
+                    .andExpect(status().isNotFound());
+            mockMvc.perform(put("/api/tasks/{id}/completed/{completed}",id,true))
+                    .andExpect(status().isNotFound());
+            mockMvc.perform(patch("/api/tasks/{id}",id)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"taskName\":\"Hijacked\",\"version\":0}"))
+                    .andExpect(status().isNotFound());
+            mockMvc.perform(get("/api/tasks/priority/{priority}",TaskPriority.LOW))
+                    .andExpect(content().string(not(containsString("TenantTask"))));
+            mockMvc.perform(delete("/api/tasks/{id}",id));
+
+            mockMvc.perform(get("/api/tasks/{id}",id).header(TenantFilter.TENANT_HEADER, "acme"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.taskName").value("TenantTask"))
+                    .andExpect(jsonPath("$.completed").value(false));
+            mockMvc.perform(get("/api/tasks/stats").header(TenantFilter.TENANT_HEADER, "acme"))
+                    .andExpect(jsonPath("$.total").value(1));
+        } finally {
+            try (TenantContext.Scope ignored = TenantContext.open("acme")) {
+                taskService.deleteTask(id);
+            }
+        }
+
+        mockMvc.perform(get("/api/tasks/{id}",id).header(TenantFilter.TENANT_HEADER, "not a tenant"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks/{id}",id).header(TenantFilter.TENANT_HEADER, "unregistered"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void testClaimHandsOutMostUrgentTasksOnce() throws Exception{
+        // own tenant, so tasks other tests leave behind are not in this queue
+        List<Task> queued = List.of(
+                new Task("ClaimLow","",TaskPriority.LOW,LocalDate.now(),LocalDate.now(),false),
+                new Task("ClaimHighLater","",TaskPriority.HIGH,LocalDate.now().plusDays(3),LocalDate.now(),false),
+                new Task("ClaimHighSooner","",TaskPriority.HIGH,LocalDate.now().plusDays(1),LocalDate.now(),false),
+                new Task("ClaimMedium","",TaskPriority.MEDIUM,LocalDate.now(),LocalDate.now(),false));
+        try (TenantContext.Scope ignored = TenantContext.open("claims")) {
+            taskService.addTasks(queued);
+        }
+
+        try {
+            mockMvc.perform(post("/api/tasks/claim").header(TenantFilter.TENANT_HEADER, "claims")
+                            .param("worker", "a").param("limit", "3"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists(TaskController.LEASE_HEADER))
+                    .andExpect(jsonPath("$[*].taskName").value(contains("ClaimHighSooner", "ClaimHighLater", "ClaimMedium")))
+                    .andExpect(jsonPath("$[0].claimedBy").doesNotExist());
+            mockMvc.perform(post("/api/tasks/claim").header(TenantFilter.TENANT_HEADER, "claims")
+                            .param("worker", "b").param("limit", "3"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[*].taskName").value(contains("ClaimLow")));
+            mockMvc.perform(post("/api/tasks/claim").header(TenantFilter.TENANT_HEADER, "claims").param("worker", "b"))
+                    .andExpect(status().isNoContent());
+
+            long sooner = queued.get(2).getTaskId();
+            mockMvc.perform(put("/api/tasks/{id}/claim",sooner).header(TenantFilter.TENANT_HEADER, "claims").param("worker", "b"))
+                    .andExpect(status().isConflict());
+            mockMvc.perform(put("/api/tasks/{id}/claim",sooner).header(TenantFilter.TENANT_HEADER, "claims").param("worker", "a"))
+                    .andExpect(status().isNoContent())
+                    .andExpect(header().exists(TaskController.LEASE_HEADER));
+            mockMvc.perform(delete("/api/tasks/{id}/claim",sooner).header(TenantFilter.TENANT_HEADER, "claims").param("worker", "a"))
+                    .andExpect(status().isNoContent());
+            mockMvc.perform(post("/api/tasks/claim").header(TenantFilter.TENANT_HEADER, "claims").param("worker", "b"))
+                    .andExpect(jsonPath("$[*].taskName").value(contains("ClaimHighSooner")));
+
+            mockMvc.perform(post("/api/tasks/claim").header(TenantFilter.TENANT_HEADER, "claims")
+                            .param("worker", "a").param("limit", "0"))
+                    .andExpect(status().isBadRequest());
+        } finally {
+            try (TenantContext.Scope ignored = TenantContext.open("claims")) {
+                taskService.deleteTasks(queued.stream().map(Task::getTaskId).toList());
+            }
+        }
+    }
+
+    @Test
+    public void testDuplicateNameIsConflict() throws Exception{
+        // not transactional: the unique index is only checked when the insert is flushed at commit
+        Task other = new Task("NotToDo","",TaskPriority.LOW,LocalDate.now(),LocalDate.now(),false);
+        try (TenantContext.Scope ignored = TenantContext.open("names")) {
+            taskService.addTasks(List.of(task, other));
+        }
+
+        try {
+            mockMvc.perform(post("/api/tasks").header(TenantFilter.TENANT_HEADER, "names")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new Task("ToDo","again",TaskPriority.LOW,LocalDate.now(),LocalDate.now(),false))))
+                    .andExpect(status().isConflict());
+            other.setTaskName("ToDo");
+            mockMvc.perform(put("/api/tasks/{id}",other.getTaskId()).header(TenantFilter.TENANT_HEADER, "names")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(other)))
+                    .andExpect(status().isConflict());
+            mockMvc.perform(post("/api/tasks/batch").header(TenantFilter.TENANT_HEADER, "names")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(List.of(new Task("ToDo","again",TaskPriority.LOW,LocalDate.now(),LocalDate.now(),false)))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].status").value(409));
+            // names are unique per tenant only
+            mockMvc.perform(post("/api/tasks").header(TenantFilter.TENANT_HEADER, "names-other")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new Task("ToDo","",TaskPriority.LOW,LocalDate.now(),LocalDate.now(),false))))
+                    .andExpect(status().isCreated());
+        } finally {
+            try (TenantContext.Scope ignored = TenantContext.open("names")) {
+                taskService.deleteTasks(List.of(task.getTaskId(), other.getTaskId()));
+            }
+            try (TenantContext.Scope ignored = TenantContext.open("names-other")) {
+                taskService.getByTaskName("ToDo").ifPresent(created -> taskService.deleteTask(created.getTaskId()));
+            }
+        }
+    }
+
+    @Test
+    public void testPriorityListIsServedFromQueryCache() throws Exception{
+        Task cached = new Task("CachedTask","",TaskPriority.MEDIUM,LocalDate.now(),LocalDate.now(),false);
+        Task bystander = new Task("Bystander","",TaskPriority.LOW,LocalDate.now(),LocalDate.now(),false);
+        try (TenantContext.Scope ignored = TenantContext.open("l2")) {
+            taskService.addTask(cached);
+            taskService.addTask(bystander);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        try {
+            statistics.clear();
+            for (int i = 0; i < 2; i++) {
+                mockMvc.perform(get("/api/tasks/priority/{priority}",TaskPriority.MEDIUM).header(TenantFilter.TENANT_HEADER, "l2"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$[*].taskName").value(contains("CachedTask")));
+            }
+            assertThat(statistics.getQueryCacheMissCount()).isEqualTo(1);
+            assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+            mockMvc.perform(get("/actuator/metrics/{name}","hibernate.cache.query.requests").param("tag", "result:hit"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.measurements[0].value").value(1.0));
+
+            // a write through Hibernate invalidates the cached result
+            mockMvc.perform(put("/api/tasks/{id}/completed/{completed}",cached.getTaskId(),true).header(TenantFilter.TENANT_HEADER, "l2"))
+                    .andExpect(status().isNoContent());
+            mockMvc.perform(get("/api/tasks/priority/{priority}",TaskPriority.MEDIUM).header(TenantFilter.TENANT_HEADER, "l2"))
+                    .andExpect(jsonPath("$[0].completed").value(true));
+            assertThat(statistics.getQueryCacheMissCount()).isEqualTo(2);
+
+            // the toggle only invalidated its own row, the rest of the task region is still cached
+            try (TenantContext.Scope ignored = TenantContext.open("l2")) {
+                long hits = statistics.getSecondLevelCacheHitCount();
+                assertThat(taskRepository.findById(bystander.getTaskId())).isPresent();
+                assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(hits + 1);
+                assertThat(taskRepository.findById(cached.getTaskId())).hasValueSatisfying(task -> assertThat(task.isCompleted()).isTrue());
+            }
+
+            // other tenants never see the cached entry
+            mockMvc.perform(get("/api/tasks/priority/{priority}",TaskPriority.MEDIUM))
+                    .andExpect(content().string(not(containsString("CachedTask"))));
+        } finally {
+            try (TenantContext.Scope ignored = TenantContext.open("l2")) {
+                taskService.deleteTask(cached.getTaskId());
+                taskService.deleteTask(bystander.getTaskId());
+            }
+        }
+    }
+
     @Test
     @Transactional
     public void testDeleteTask() throws Exception{
@@ -125,6 +750,38 @@ class TaskControllerTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    @Transactional
+    public void testBatchCreateUpdateAndDelete() throws Exception{
+        Task task1 = new Task("Task2","This is task 2",TaskPriority.LOW,LocalDate.now(),LocalDate.now(),false);
+
+        mockMvc.perform(post("/api/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(task, task1))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[1].index").value(1));
+
+        Task added = taskService.addTask(new Task("Task3","This is task 3",TaskPriority.HIGH,LocalDate.now(),LocalDate.now(),false));
+        added.setCompleted(true);
+        Task missing = new Task(999999L, "Missing","Not there",TaskPriority.HIGH,LocalDate.now(),LocalDate.now(),false);
+
+        mockMvc.perform(put("/api/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(added, missing))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(200))
+                .andExpect(jsonPath("$[1].status").value(404));
+
+        mockMvc.perform(delete("/api/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(added.getTaskId(), 999999L))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(204))
+                .andExpect(jsonPath("$[1].status").value(404));
+    }
+
     @Test
     @Transactional
     public void testGetAllTasksByPriority() throws Exception{
@@ -142,6 +799,25 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$[0].priority").value("HIGH"));
     }
 
+    @Test
+    @Transactional
+    public void testGetTaskFieldsByPriority() throws Exception{
+        Task task1 = new Task("Task1","This is task 1",TaskPriority.MEDIUM,LocalDate.now(),LocalDate.now(),false);
+        Task added = taskService.addTask(task1);
+
+        mockMvc.perform(get("/api/tasks/priority/{priority}",TaskPriority.MEDIUM)
+                .param("fields", "summary")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.taskId == %d)].taskName".formatted(added.getTaskId())).value("Task1"))
+                .andExpect(jsonPath("$[0].taskData").doesNotExist());
+
+        mockMvc.perform(get("/api/tasks/priority/{priority}",TaskPriority.MEDIUM)
+                .param("fields", "taskId,secret")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     public void testGetAllTasksByDeadLine() throws Exception{
@@ -193,6 +869,31 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$[0].completed").value(false));
     }
 
+    @Test
+    @Transactional
+    public void testSearchTasks() throws Exception{
+        Task task1 = new Task("Search1","This is task 1",TaskPriority.HIGH,LocalDate.parse("2030-01-10"),LocalDate.now(),false);
+        Task task2 = new Task("Search2","This is task 2",TaskPriority.HIGH,LocalDate.parse("2030-02-10"),LocalDate.now(),false);
+        Task task3 = new Task("Search3","This is task 3",TaskPriority.HIGH,LocalDate.parse("2030-01-20"),LocalDate.now(),true);
+        taskService.addTask(task1);
+        taskService.addTask(task2);
+        taskService.addTask(task3);
+
+        mockMvc.perform(get("/api/tasks/search")
+                .param("priority", "HIGH")
+                .param("completed", "false")
+                .param("deadLineFrom", "2030-01-01")
+                .param("deadLineTo", "2030-12-31")
+                .param("namePrefix", "Search")
+                .param("sort", "deadLine,desc")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "2"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].taskName").value("Search2"))
+                .andExpect(jsonPath("$[1].taskName").value("Search1"));
+    }
+
     @Test
     @Transactional
     public void testGetTaskByName() throws Exception{
@@ -0,0 +1,93 @@
+package com.example.demo.deadline;
+
+import com.example.demo.entity.Task;
+import com.example.demo.entity.TaskOutboxEvent;
+import com.example.demo.entity.TaskPriority;
+import com.example.demo.event.TaskEventType;
+import com.example.demo.outbox.InMemoryTaskEventSink;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.service.TaskService;
+import com.example.demo.tenant.TenantContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskDeadlineSchedulerTest {
+
+    @Autowired
+    private TaskDeadlineScheduler scheduler;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private InMemoryTaskEventSink sink;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void testTaskWrittenInsideApproachingWindowIsPublishedOnce() throws Exception{
+        Task task;
+        try (TenantContext.Scope ignored = TenantContext.open("deadlines")) {
+            task = taskService.addTask(new Task("DueTomorrow","approaching",TaskPriority.HIGH,LocalDate.now().plusDays(1),LocalDate.now(),false));
+        }
+
+        scheduler.tick();
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> delivered(task.getTaskId()).size() == 1);
+        TaskOutboxEvent event = delivered(task.getTaskId()).get(0);
+        assertThat(event.getEventType()).isEqualTo(TaskEventType.APPROACHING);
+        TaskDeadlineEvent payload = objectMapper.readValue(event.getPayload(), TaskDeadlineEvent.class);
+        assertThat(payload).isEqualTo(new TaskDeadlineEvent(TaskDeadlineEvent.Kind.APPROACHING, "deadlines", task.getTaskId(), LocalDate.now().plusDays(1)));
+
+        // a second instance loading its wheel finds the notice and stays quiet
+        scheduler.load();
+        await().during(Duration.ofSeconds(1)).atMost(Duration.ofSeconds(3)).until(() -> delivered(task.getTaskId()).size() == 1);
+
+        try (TenantContext.Scope ignored = TenantContext.open("deadlines")) {
+            taskService.deleteTask(task.getTaskId());
+        }
+    }
+
+    @Test
+    public void testStartupCatchesUpOnTasksThatBecameOverdue() throws Exception{
+        // written behind TaskService's back, as if it had passed its deadline while nothing was running
+        Task task = taskRepository.save(new Task("MissedDeadline","overdue",TaskPriority.LOW,LocalDate.now().minusDays(2),LocalDate.now().minusDays(5),false));
+
+        scheduler.load();
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> delivered(task.getTaskId()).size() == 1);
+        TaskOutboxEvent event = delivered(task.getTaskId()).get(0);
+        assertThat(event.getEventType()).isEqualTo(TaskEventType.OVERDUE);
+        assertThat(objectMapper.readValue(event.getPayload(), TaskDeadlineEvent.class).tenantId()).isEqualTo(TenantContext.DEFAULT_TENANT);
+
+        scheduler.load();
+        scheduler.tick();
+        await().during(Duration.ofSeconds(1)).atMost(Duration.ofSeconds(3)).until(() -> delivered(task.getTaskId()).size() == 1);
+
+        taskService.deleteTask(task.getTaskId());
+    }
+
+    // deadline events only, the task's own writes go through the outbox too
+    private List<TaskOutboxEvent> delivered(long taskId){
+        return sink.getEvents().stream()
+                .filter(event -> event.getTaskId() == taskId)
+                .filter(event -> event.getEventType() == TaskEventType.APPROACHING || event.getEventType() == TaskEventType.OVERDUE)
+                .toList();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.deadline;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskDeadlineWheelTest {
+
+    private final LocalDate today = LocalDate.parse("2024-12-30");
+
+    @Test
+    public void testScheduleWithinHorizon(){
+        TaskDeadlineWheel wheel = new TaskDeadlineWheel(7, today);
+
+        assertThat(wheel.schedule(1L, today)).isTrue();
+        assertThat(wheel.schedule(2L, today.plusDays(6))).isTrue();
+        assertThat(wheel.schedule(3L, today.plusDays(7))).isFalse();
+        assertThat(wheel.schedule(4L, today.minusDays(1))).isFalse();
+
+        assertThat(wheel.size()).isEqualTo(2);
+        assertThat(wheel.getLastDay()).isEqualTo(today.plusDays(6));
+    }
+
+    @Test
+    public void testAdvanceFiresDueTasksAndReusesSlot(){
+        TaskDeadlineWheel wheel = new TaskDeadlineWheel(3, today);
+        wheel.schedule(1L, today);
+        wheel.schedule(2L, today);
+        wheel.schedule(3L, today.plusDays(1));
+
+        assertThat(wheel.advance()).isEqualTo(Set.of(1L, 2L));
+        assertThat(wheel.getCurrentDay()).isEqualTo(today.plusDays(1));
+        assertThat(wheel.dueOn(today.plusDays(1))).isEqualTo(Set.of(3L));
+
+        assertThat(wheel.schedule(4L, today.plusDays(3))).isTrue();
+        assertThat(wheel.dueOn(today.plusDays(3))).isEqualTo(Set.of(4L));
+        assertThat(wheel.advance()).isEqualTo(Set.of(3L));
+        assertThat(wheel.advance()).isEmpty();
+        assertThat(wheel.advance()).isEqualTo(Set.of(4L));
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    public void testRescheduleAndCancel(){
+        TaskDeadlineWheel wheel = new TaskDeadlineWheel(5, today);
+        wheel.schedule(1L, today.plusDays(1));
+        wheel.schedule(1L, today.plusDays(2));
+
+        assertThat(wheel.dueOn(today.plusDays(1))).isEmpty();
+        assertThat(wheel.dueOn(today.plusDays(2))).isEqualTo(Set.of(1L));
+        assertThat(wheel.getScheduledDay(1L)).isEqualTo(today.plusDays(2));
+
+        wheel.cancel(1L);
+        assertThat(wheel.size()).isZero();
+        assertThat(wheel.getScheduledDay(1L)).isNull();
+        assertThat(wheel.dueOn(today.plusDays(2))).isEmpty();
+    }
+}
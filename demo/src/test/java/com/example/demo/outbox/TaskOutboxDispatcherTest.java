@@ -0,0 +1,60 @@
+package com.example.demo.outbox;
+
+import com.example.demo.entity.Task;
+import com.example.demo.entity.TaskOutboxEvent;
+import com.example.demo.entity.TaskPriority;
+import com.example.demo.event.TaskEventType;
+import com.example.demo.repository.TaskOutboxRepository;
+import com.example.demo.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskOutboxDispatcherTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskOutboxRepository outboxRepository;
+
+    @Autowired
+    private InMemoryTaskEventSink sink;
+
+    @Test
+    public void testEventsAreDispatchedInOrderPerTaskAndPruned() throws Exception{
+        List<Long> taskIds = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Task task = taskService.addTask(new Task("OutboxTask" + i,"dispatched through the outbox",TaskPriority.MEDIUM,LocalDate.now(),LocalDate.now(),false));
+            taskService.setCompleted(task.getTaskId(), true);
+            taskIds.add(task.getTaskId());
+        }
+        taskIds.forEach(taskService::deleteTask);
+
+        // tasks spread over both dispatcher workers; each task's events still arrive in write order
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            for (long taskId : taskIds) {
+                assertThat(delivered(taskId)).containsExactly(TaskEventType.CREATED, TaskEventType.UPDATED, TaskEventType.DELETED);
+            }
+        });
+        assertThat(outboxRepository.findAll()).noneMatch(event -> taskIds.contains(event.getTaskId()));
+    }
+
+    private List<TaskEventType> delivered(long taskId){
+        return sink.getEvents().stream()
+                .filter(event -> event.getTaskId() == taskId)
+                .map(TaskOutboxEvent::getEventType)
+                .toList();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.demo.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketsTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final TokenBuckets buckets = new TokenBuckets(1024, Duration.ofMinutes(1));
+
+    @Test
+    public void testBurstThenRate(){
+        for (int i = 0; i < 5; i++) {
+            assertThat(buckets.tryAcquire("client-a", 10, 5, 0)).isZero();
+        }
+        long wait = buckets.tryAcquire("client-a", 10, 5, 0);
+        assertThat(wait).isEqualTo(SECOND / 10);
+
+        // one token per 100ms at 10 per second
+        assertThat(buckets.tryAcquire("client-a", 10, 5, wait)).isZero();
+        assertThat(buckets.tryAcquire("client-a", 10, 5, wait)).isPositive();
+    }
+
+    @Test
+    public void testClientsHaveSeparateBuckets(){
+        for (int i = 0; i < 3; i++) {
+            assertThat(buckets.tryAcquire("client-a", 1, 3, 0)).isZero();
+        }
+        assertThat(buckets.tryAcquire("client-a", 1, 3, 0)).isPositive();
+        assertThat(buckets.tryAcquire("client-b", 1, 3, 0)).isZero();
+    }
+
+    @Test
+    public void testIdleBucketRefillsOnlyUpToBurst(){
+        assertThat(buckets.tryAcquire("client-a", 1, 2, 0)).isZero();
+        long later = 60 * SECOND;
+        assertThat(buckets.tryAcquire("client-a", 1, 2, later)).isZero();
+        assertThat(buckets.tryAcquire("client-a", 1, 2, later)).isZero();
+        assertThat(buckets.tryAcquire("client-a", 1, 2, later)).isPositive();
+    }
+
+    @Test
+    public void testKeysWithEqualHashesHaveSeparateBuckets(){
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+        assertThat(buckets.tryAcquire("Aa", 1, 1, 0)).isZero();
+        assertThat(buckets.tryAcquire("Aa", 1, 1, 0)).isPositive();
+        assertThat(buckets.tryAcquire("BB", 1, 1, 0)).isZero();
+    }
+
+    @Test
+    public void testKeysAreBounded(){
+        TokenBuckets bounded = new TokenBuckets(100, Duration.ofMinutes(1));
+        for (int i = 0; i < 1000; i++) {
+            bounded.tryAcquire("client-" + i, 1, 1, 0);
+        }
+        assertThat(bounded.size()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    public void testConcurrencyLimitBacksOffAndRecovers(){
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 20);
+        for (int i = 0; i < 5; i++) {
+            assertThat(limit.tryAcquire(RateBudget.LIST.getShare())).isTrue();
+        }
+        assertThat(limit.tryAcquire(RateBudget.LIST.getShare())).isFalse();
+        assertThat(limit.tryAcquire(RateBudget.READ.getShare())).isTrue();
+
+        limit.adjust(true);
+        assertThat(limit.getLimit()).isEqualTo(8);
+        limit.adjust(false);
+        assertThat(limit.getLimit()).isEqualTo(9);
+
+        for (int i = 0; i < 6; i++) {
+            limit.release();
+        }
+        // the window still saw 6 in flight, after that the idle limit stays put
+        limit.adjust(false);
+        assertThat(limit.getLimit()).isEqualTo(10);
+        limit.adjust(false);
+        limit.adjust(false);
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.TaskPatch;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.TaskPriority;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Pins the second-level cache protocol of the native writes: the row is soft locked while the
+// transaction runs and the tasks query space is invalidated when it completes, so neither a cached
+// row nor a list cached by a concurrent reader survives the commit.
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskPatchRepositoryTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void testPatchInvalidatesCachedRowAndListsOnCommit(){
+        Task task = taskRepository.save(new Task("PatchCached","",TaskPriority.MEDIUM,LocalDate.now(),LocalDate.now(),false));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        try {
+            assertThat(taskRepository.findById(task.getTaskId())).hasValueSatisfying(row -> assertThat(row.getTaskName()).isEqualTo("PatchCached"));
+            assertThat(names(taskRepository.findAllByPriority(TaskPriority.MEDIUM))).contains("PatchCached");
+            long listMisses = statistics.getQueryCacheMissCount();
+            assertThat(names(taskRepository.findAllByPriority(TaskPriority.MEDIUM))).contains("PatchCached");
+            assertThat(statistics.getQueryCacheMissCount()).isEqualTo(listMisses);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                assertThat(taskRepository.patch(task.getTaskId(), new TaskPatch("PatchCachedRenamed", null, null, null, null, task.getVersion()))).isEqualTo(1);
+                // a concurrent reader bypasses the cached list and still sees the committed row; what it
+                // loads must not outlive the commit
+                long misses = statistics.getQueryCacheMissCount();
+                CompletableFuture.runAsync(() -> {
+                    assertThat(taskRepository.findById(task.getTaskId())).hasValueSatisfying(row -> assertThat(row.getTaskName()).isEqualTo("PatchCached"));
+                    assertThat(names(taskRepository.findAllByPriority(TaskPriority.MEDIUM))).contains("PatchCached");
+                }).join();
+                assertThat(statistics.getQueryCacheMissCount()).isEqualTo(misses + 1);
+            });
+
+            assertThat(taskRepository.findById(task.getTaskId())).hasValueSatisfying(row -> assertThat(row.getTaskName()).isEqualTo("PatchCachedRenamed"));
+            assertThat(names(taskRepository.findAllByPriority(TaskPriority.MEDIUM))).contains("PatchCachedRenamed").doesNotContain("PatchCached");
+            // the space is released at commit, so lists are cached again right away
+            long listHits = statistics.getQueryCacheHitCount();
+            assertThat(names(taskRepository.findAllByPriority(TaskPriority.MEDIUM))).contains("PatchCachedRenamed");
+            assertThat(statistics.getQueryCacheHitCount()).isEqualTo(listHits + 1);
+        } finally {
+            taskRepository.deleteById(task.getTaskId());
+        }
+    }
+
+    private static List<String> names(List<Task> tasks){
+        return tasks.stream().map(Task::getTaskName).toList();
+    }
+}
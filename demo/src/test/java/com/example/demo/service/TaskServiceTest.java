@@ -1,23 +1,53 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.TaskPatch;
+import com.example.demo.dto.TaskSearchCriteria;
+import com.example.demo.dto.TaskState;
+import com.example.demo.entity.ArchivedTask;
 import com.example.demo.entity.Task;
 import com.example.demo.entity.TaskPriority;
+import com.example.demo.event.TaskEvent;
+import com.example.demo.event.TaskEventType;
+import com.example.demo.repository.ArchivedTaskRepository;
 import com.example.demo.repository.TaskRepository;
+import com.example.demo.tenant.TenantContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class TaskServiceTest {
@@ -26,6 +56,21 @@ class TaskServiceTest {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Mock
+    private TaskStatistics taskStatistics;
+
+    @Mock
+    private TaskStatusBuffer statusBuffer;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -61,12 +106,25 @@ class TaskServiceTest {
         verify(taskRepository, times(1)).deleteById(task.getTaskId());
     }
 
+    @Test
+    public void testDeleteTaskPublishesEvent(){
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findById(2L)).thenReturn(Optional.empty());
+
+        taskService.deleteTask(1L);
+        taskService.deleteTask(2L);
+
+        verify(taskRepository, times(1)).delete(task);
+        verify(eventPublisher, times(1)).publishEvent(new TaskEvent(TaskEventType.DELETED, 1L, task, TenantContext.DEFAULT_TENANT));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
     @Test
     public void testUpdateTask(){
         long taskId = 1;
         Task task1 = new Task(2L, "Task2","This is task 2",TaskPriority.HIGH,LocalDate.now(),LocalDate.now(),false);
 
-        when(taskRepository.existsById(taskId)).thenReturn(true);
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
         when(taskRepository.save(task1)).thenReturn(task1);
 
         Task updatedTask = taskService.updateTask(taskId, task1);
@@ -75,6 +133,7 @@ class TaskServiceTest {
         assertThat(updatedTask.getTaskId()).isEqualTo(1L);
         assertThat(updatedTask.getTaskName()).isEqualTo(task1.getTaskName());
         assertThat(updatedTask.getCreationDate()).isEqualTo(task1.getCreationDate());
+        verify(taskRepository, never()).existsById(taskId);
     }
 
     @Test
@@ -82,12 +141,12 @@ class TaskServiceTest {
         long taskId = 2;
         Task task1 = new Task(1L, "Task2","This is task 2",TaskPriority.HIGH,LocalDate.now(),LocalDate.now(),false);
 
-        when(taskRepository.existsById(taskId)).thenReturn(false);
-        when(taskRepository.save(task1)).thenReturn(null);
+        when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
 
         Task updatedTask = taskService.updateTask(taskId, task1);
 
         assertThat(updatedTask).isNull();
+        verify(taskRepository, never()).save(task1);
     }
 
     @Test
@@ -102,6 +161,184 @@ class TaskServiceTest {
 
     }
 
+    @Test
+    public void testGetTasksAfter(){
+        Task task1 = new Task(2L, "Task2","This is task 2",TaskPriority.HIGH,LocalDate.now(),LocalDate.now(),false);
+        when(taskRepository.findByTaskIdGreaterThanOrderByTaskIdAsc(1L, Limit.of(10))).thenReturn(Arrays.asList(task1));
+
+        List<Task> tasks = taskService.getTasksAfter(1L, 10);
+
+        assertThat(tasks.size()).isEqualTo(1);
+        assertThat(tasks.getFirst().getTaskId()).isEqualTo(2L);
+    }
+
+    @Test
+    public void testSearchTasks(){
+        TaskSearchCriteria criteria = new TaskSearchCriteria(TaskPriority.HIGH, false, null, null, null, null, "To");
+        Pageable pageable = PageRequest.of(0, 10);
+        when(taskRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(new PageImpl<>(List.of(task), pageable, 1));
+
+        Page<Task> tasks = taskService.searchTasks(criteria, pageable);
+
+        assertThat(tasks.getTotalElements()).isEqualTo(1L);
+        assertThat(tasks.getContent().getFirst().getTaskName()).isEqualTo("ToDo");
+    }
+
+    @Test
+    public void testFullTextSearchIgnoresClientSort(){
+        Pageable pageable = PageRequest.of(1, 5, Sort.by("taskName"));
+        when(taskRepository.fullTextSearch(TenantContext.DEFAULT_TENANT, "spring", PageRequest.of(1, 5))).thenReturn(new SliceImpl<>(List.of(task), PageRequest.of(1, 5), false));
+
+        Slice<Task> tasks = taskService.fullTextSearch("spring", pageable);
+
+        assertThat(tasks.getContent().size()).isEqualTo(1);
+        assertThat(tasks.hasNext()).isFalse();
+    }
+
+    @Test
+    public void testFullTextSearchIsScopedToTenant(){
+        when(taskRepository.fullTextSearch("acme", "spring", PageRequest.of(0, 5))).thenReturn(new SliceImpl<>(List.of(task), PageRequest.of(0, 5), false));
+
+        Slice<Task> tasks;
+        try (TenantContext.Scope ignored = TenantContext.open("acme")) {
+            tasks = taskService.fullTextSearch("spring", PageRequest.of(0, 5));
+        }
+
+        assertThat(tasks.getContent().size()).isEqualTo(1);
+        verify(taskRepository, never()).fullTextSearch(eq(TenantContext.DEFAULT_TENANT), any(), any());
+    }
+
+    @Test
+    public void testClaimTasksLeasesLockedRowsInClaimOrder(){
+        Task urgent = new Task(2L,"Urgent","due today",TaskPriority.HIGH,LocalDate.now(),LocalDate.now(),false);
+        Instant leaseUntil = Instant.now().plusSeconds(60);
+        when(taskRepository.lockClaimableIds(eq("acme"), any(Instant.class), eq(2))).thenReturn(List.of(2L, 1L));
+        when(taskRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(task, urgent));
+
+        List<Task> claimed;
+        try (TenantContext.Scope ignored = TenantContext.open("acme")) {
+            claimed = taskService.claimTasks("worker-1", 2, leaseUntil);
+        }
+
+        assertEquals(List.of(urgent, task), claimed);
+        verify(taskRepository).claim(List.of(2L, 1L), "worker-1", leaseUntil);
+        verifyNoInteractions(eventPublisher, taskStatistics);
+    }
+
+    @Test
+    public void testClaimTasksSkipsLeaseWriteWhenQueueIsEmpty(){
+        when(taskRepository.lockClaimableIds(any(), any(), anyInt())).thenReturn(List.of());
+
+        assertTrue(taskService.claimTasks("worker-1", 10, Instant.now()).isEmpty());
+        verify(taskRepository, never()).claim(any(), any(), any());
+    }
+
+    @Test
+    public void testBufferedSetCompletedSkipsTheRowUpdate(){
+        when(statusBuffer.isEnabled()).thenReturn(true);
+        when(statusBuffer.offer(TenantContext.DEFAULT_TENANT, 1L, true)).thenReturn(true);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertTrue(taskService.setCompleted(1L, true));
+        assertFalse(taskService.setCompleted(2L, true));
+        verify(taskRepository, never()).updateCompleted(anyLong(), anyBoolean());
+        verifyNoInteractions(eventPublisher, taskStatistics);
+    }
+
+    @Test
+    public void testGetTaskSeesPendingStatus(){
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(statusBuffer.get(TenantContext.DEFAULT_TENANT, 1L)).thenReturn(Optional.of(true));
+
+        Task found = taskService.getTask(1L).orElseThrow();
+
+        assertTrue(found.isCompleted());
+        assertEquals(task.getTaskName(), found.getTaskName());
+        // the loaded entity is left alone so the pending value is never flushed by dirty checking
+        assertFalse(task.isCompleted());
+    }
+
+    @Test
+    public void testFlushStatusesWritesOnlyChangedTasks(){
+        when(statusBuffer.flush(any())).thenAnswer(invocation -> {
+            invocation.<BiConsumer<String, Map<Long, Boolean>>>getArgument(0)
+                    .accept(TenantContext.DEFAULT_TENANT, Map.of(1L, true, 2L, false, 3L, true));
+            return 3;
+        });
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(taskRepository.findStatesByIdIn(any())).thenReturn(List.of(
+                new TaskState(1L, TaskPriority.HIGH, false, null),
+                new TaskState(2L, TaskPriority.LOW, true, null),
+                new TaskState(3L, TaskPriority.LOW, true, null)));
+
+        assertEquals(3, taskService.flushStatuses());
+
+        verify(taskRepository).updateCompletedIn(List.of(1L), true);
+        verify(taskRepository).updateCompletedIn(List.of(2L), false);
+        verify(taskStatistics).record(new TaskState(1L, TaskPriority.HIGH, false, null), new TaskState(1L, TaskPriority.HIGH, true, null));
+        verify(eventPublisher, times(2)).publishEvent(any(TaskEvent.class));
+    }
+
+    @Test
+    public void testParseFields(){
+        assertThat(TaskService.parseFields("taskName, summary")).isEqualTo(
+                List.of("taskName", "taskId", "priority", "deadLine", "creationDate", "completed"));
+        assertThrows(IllegalArgumentException.class, () -> TaskService.parseFields("taskId,owner"));
+    }
+
+    @Test
+    public void testPatchTask(){
+        TaskPatch patch = new TaskPatch(null, null, TaskPriority.LOW, null, null, 3L);
+        when(taskRepository.patch(1L, patch)).thenReturn(1);
+        when(taskRepository.patch(2L, patch)).thenReturn(0);
+        when(taskRepository.existsById(2L)).thenReturn(true);
+        when(taskRepository.patch(3L, patch)).thenReturn(0);
+        when(taskRepository.existsById(3L)).thenReturn(false);
+
+        assertThat(taskService.patchTask(1L, patch)).isEqualTo(Optional.of(4L));
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> taskService.patchTask(2L, patch));
+        assertThat(taskService.patchTask(3L, patch)).isEqualTo(Optional.empty());
+        verify(taskRepository, never()).existsById(1L);
+    }
+
+    @Test
+    public void testGetAllByStatusIncludingArchive(){
+        ArchivedTask archived = new ArchivedTask();
+        archived.setTaskId(2L);
+        archived.setTaskName("Archived");
+        archived.setCompleted(true);
+        when(taskRepository.findAllByCompleted(true)).thenReturn(List.of(task));
+        when(taskRepository.findAllByCompleted(false)).thenReturn(List.of(task));
+        when(archivedTaskRepository.findAllByCompleted(true)).thenReturn(List.of(archived));
+
+        assertThat(taskService.getAllByStatus(true, true).size()).isEqualTo(2);
+        assertThat(taskService.getAllByStatus(true, false).size()).isEqualTo(1);
+        assertThat(taskService.getAllByStatus(false, true).size()).isEqualTo(1);
+        verify(archivedTaskRepository, times(1)).findAllByCompleted(true);
+    }
+
+    @Test
+    public void testSetCompletedRecordsStatusChange(){
+        LocalDate deadLine = LocalDate.now().minusDays(1);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(new Task(1L, "Task1", "", TaskPriority.LOW, deadLine, LocalDate.now(), false)));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(new Task(2L, "Task2", "", TaskPriority.LOW, deadLine, LocalDate.now(), true)));
+        when(taskRepository.findById(3L)).thenReturn(Optional.empty());
+        when(taskRepository.updateCompleted(1L, true)).thenReturn(1);
+        when(taskRepository.updateCompleted(2L, true)).thenReturn(0);
+
+        assertThat(taskService.setCompleted(1L, true)).isTrue();
+        assertThat(taskService.setCompleted(2L, true)).isTrue();
+        assertThat(taskService.setCompleted(3L, true)).isFalse();
+
+        verify(taskStatistics, times(1)).record(new TaskState(1L, TaskPriority.LOW, false, deadLine), new TaskState(1L, TaskPriority.LOW, true, deadLine));
+        verify(taskRepository, never()).updateCompleted(3L, true);
+        verifyNoMoreInteractions(taskStatistics);
+    }
+
     @Test
     public void testGetAllByPriority(){
         TaskPriority priority = TaskPriority.HIGH;
@@ -0,0 +1,79 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskStatusBufferTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TaskStatusBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        buffer = new TaskStatusBuffer();
+        ReflectionTestUtils.setField(buffer, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(buffer, "maxPending", 2);
+        buffer.init();
+    }
+
+    @Test
+    void keepsOnlyTheLatestToggle() {
+        buffer.offer("acme", 1L, true);
+        buffer.offer("acme", 1L, false);
+        buffer.offer("acme", 1L, true);
+        buffer.offer("globex", 1L, false);
+
+        Map<String, Map<Long, Boolean>> written = new HashMap<>();
+        assertEquals(2, buffer.flush(written::put));
+
+        assertEquals(Map.of("acme", Map.of(1L, true), "globex", Map.of(1L, false)), written);
+        assertEquals(0, buffer.size());
+        assertEquals(4, meterRegistry.get("task.status.buffered").counter().count());
+        assertEquals(2, meterRegistry.get("task.status.flushed").counter().count());
+    }
+
+    @Test
+    void toggleDuringFlushIsKeptForTheNextOne() {
+        buffer.offer("acme", 1L, true);
+
+        buffer.flush((tenant, updates) -> buffer.offer("acme", 1L, false));
+
+        assertEquals(Optional.of(false), buffer.get("acme", 1L));
+    }
+
+    @Test
+    void failedTenantIsRetried() {
+        buffer.offer("acme", 1L, true);
+        buffer.offer("globex", 2L, true);
+
+        buffer.flush((tenant, updates) -> {
+            if (tenant.equals("acme")) {
+                throw new IllegalStateException("database down");
+            }
+        });
+
+        assertEquals(Optional.of(true), buffer.get("acme", 1L));
+        assertEquals(Optional.empty(), buffer.get("globex", 2L));
+    }
+
+    @Test
+    void fullBufferOnlyTakesTasksItAlreadyHolds() {
+        assertTrue(buffer.offer("acme", 1L, true));
+        assertTrue(buffer.offer("acme", 2L, true));
+        assertFalse(buffer.offer("acme", 3L, true));
+        assertTrue(buffer.offer("acme", 1L, false));
+
+        buffer.discard("acme", 2L);
+        assertEquals(List.of(Optional.of(false), Optional.empty()), List.of(buffer.get("acme", 1L), buffer.get("acme", 2L)));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.demo.tenant;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class TenantFilterTest {
+
+    private final TenantRouting tenantRouting = mock(TenantRouting.class);
+    private final TenantFilter filter = new TenantFilter();
+
+    @BeforeEach
+    void setUp(){
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "tenantRouting", tenantRouting);
+        ReflectionTestUtils.setField(filter, "maxConcurrentRequests", 1);
+        when(tenantRouting.isKnown("acme")).thenReturn(true);
+    }
+
+    @Test
+    public void testUnknownTenantIsRejected() throws Exception{
+        assertThat(perform("globex", new MockFilterChain()).getStatus()).isEqualTo(403);
+        assertThat(perform("acme", new MockFilterChain()).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    public void testAsyncRequestHoldsPermitUntilComplete() throws Exception{
+        MockHttpServletRequest streaming = request("acme");
+        FilterChain startsAsync = (request, response) -> request.startAsync();
+        filter.doFilter(streaming, new MockHttpServletResponse(), startsAsync);
+
+        assertThat(perform("acme", new MockFilterChain()).getStatus()).isEqualTo(429);
+
+        streaming.getAsyncContext().complete();
+        assertThat(perform("acme", new MockFilterChain()).getStatus()).isEqualTo(200);
+        assertThat(perform("acme", new MockFilterChain()).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    public void testOpenEventStreamDoesNotHoldPermit() throws Exception{
+        SseEmitter emitter = new SseEmitter(0L);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new EventsController(emitter)).addFilters(filter).build();
+
+        mockMvc.perform(get("/events").header(TenantFilter.TENANT_HEADER, "acme"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted());
+
+        assertThat(perform("acme", new MockFilterChain()).getStatus()).isEqualTo(200);
+        emitter.complete();
+    }
+
+    @RestController
+    private record EventsController(SseEmitter emitter) {
+
+        @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        public SseEmitter events(){
+            return emitter;
+        }
+    }
+
+    private MockHttpServletResponse perform(String tenantId, FilterChain chain) throws Exception{
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(tenantId), response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String tenantId){
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/export");
+        request.setAsyncSupported(true);
+        request.addHeader(TenantFilter.TENANT_HEADER, tenantId);
+        return request;
+    }
+}
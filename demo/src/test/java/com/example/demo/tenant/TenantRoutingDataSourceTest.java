@@ -0,0 +1,52 @@
+package com.example.demo.tenant;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TenantRoutingDataSourceTest {
+
+    private final DataSource shared = mock(DataSource.class);
+    private final DataSource dedicated = mock(DataSource.class);
+    private final Connection sharedConnection = mock(Connection.class);
+    private final Connection dedicatedConnection = mock(Connection.class);
+
+    private final TenantRoutingDataSource dataSource =
+            new TenantRoutingDataSource(Map.of("acme", "large"), shared, Map.of("large", dedicated));
+
+    @Test
+    public void testRoutesByTenant() throws Exception{
+        when(shared.getConnection()).thenReturn(sharedConnection);
+        when(dedicated.getConnection()).thenReturn(dedicatedConnection);
+
+        assertThat(dataSource.getConnection()).isSameAs(sharedConnection);
+        try (TenantContext.Scope ignored = TenantContext.open("acme")) {
+            assertThat(dataSource.getConnection()).isSameAs(dedicatedConnection);
+            try (TenantContext.Scope nested = TenantContext.open("globex")) {
+                assertThat(dataSource.getConnection()).isSameAs(sharedConnection);
+            }
+            assertThat(dataSource.getConnection()).isSameAs(dedicatedConnection);
+        }
+        assertThat(TenantContext.getTenantId()).isEqualTo(TenantContext.DEFAULT_TENANT);
+    }
+
+    @Test
+    public void testRootScopeUsesItsTarget() throws Exception{
+        when(shared.getConnection()).thenReturn(sharedConnection);
+        when(dedicated.getConnection()).thenReturn(dedicatedConnection);
+
+        try (TenantContext.Scope ignored = TenantContext.openRoot("large")) {
+            assertThat(TenantContext.isRoot()).isTrue();
+            assertThat(dataSource.getConnection()).isSameAs(dedicatedConnection);
+        }
+        try (TenantContext.Scope ignored = TenantContext.openRoot(TenantRouting.SHARED)) {
+            assertThat(dataSource.getConnection()).isSameAs(sharedConnection);
+        }
+    }
+}